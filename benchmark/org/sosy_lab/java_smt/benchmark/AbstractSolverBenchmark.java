@@ -0,0 +1,108 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BitvectorFormulaManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.IntegerFormulaManager;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.test.HardBitvectorFormulaGenerator;
+import org.sosy_lab.java_smt.test.HardIntegerFormulaGenerator;
+
+/**
+ * Common state of all benchmarks: one solver context per trial and the formula generators from the
+ * test package as workload sources, such that results stay comparable over releases.
+ *
+ * <p>Without an explicit parameter, JMH runs each benchmark for every value of {@link Solvers}.
+ * Solvers that are not available on the current machine fail in {@link #setUpContext()} and are
+ * reported as failed benchmarks, while the remaining solvers continue.
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractSolverBenchmark {
+
+  @Param protected Solvers solver;
+
+  protected SolverContext context;
+  protected FormulaManager mgr;
+  protected BooleanFormulaManager bmgr;
+
+  /** The configuration for the solver context, benchmarks can override this to set options. */
+  protected Configuration createConfiguration() throws InvalidConfigurationException {
+    return Configuration.defaultConfiguration();
+  }
+
+  @Setup
+  public void setUpContext() throws InvalidConfigurationException {
+    context =
+        SolverContextFactory.createSolverContext(
+            createConfiguration(),
+            LogManager.createNullLogManager(),
+            ShutdownNotifier.createDummy(),
+            solver);
+    mgr = context.getFormulaManager();
+    bmgr = mgr.getBooleanFormulaManager();
+  }
+
+  @TearDown
+  public void tearDownContext() {
+    if (context != null) {
+      context.close();
+    }
+  }
+
+  /** Generate a hard formula in integer arithmetic, or in bitvector logic as fallback. */
+  protected BooleanFormula generateHardFormula(int size) {
+    if (supportsIntegers()) {
+      return generateHardIntegerFormula(size);
+    } else {
+      return generateHardBitvectorFormula(size);
+    }
+  }
+
+  protected BooleanFormula generateHardIntegerFormula(int size) {
+    IntegerFormulaManager imgr = mgr.getIntegerFormulaManager();
+    return new HardIntegerFormulaGenerator(imgr, bmgr).generate(size);
+  }
+
+  protected BooleanFormula generateHardBitvectorFormula(int size) {
+    BitvectorFormulaManager bvmgr = mgr.getBitvectorFormulaManager();
+    return new HardBitvectorFormulaGenerator(bvmgr, bmgr).generate(size);
+  }
+
+  protected boolean supportsIntegers() {
+    try {
+      mgr.getIntegerFormulaManager();
+      return true;
+    } catch (UnsupportedOperationException e) {
+      return false;
+    }
+  }
+
+  protected boolean supportsBitvectors() {
+    try {
+      mgr.getBitvectorFormulaManager();
+      return true;
+    } catch (UnsupportedOperationException e) {
+      return false;
+    }
+  }
+}
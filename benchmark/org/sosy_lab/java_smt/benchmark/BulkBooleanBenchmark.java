@@ -0,0 +1,59 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+/**
+ * Measures n-ary conjunctions and disjunctions over many literals, as they appear in large frame
+ * encodings. The allocation rate is reported by the GC profiler of JMH ({@code -prof gc}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkBooleanBenchmark extends AbstractSolverBenchmark {
+
+  @Param({"1000", "100000"})
+  private int size;
+
+  private List<BooleanFormula> literals;
+
+  @Setup
+  public void setUpLiterals() {
+    literals = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      BooleanFormula var = bmgr.makeVariable("b" + i);
+      literals.add(i % 2 == 0 ? var : bmgr.not(var));
+    }
+  }
+
+  @Benchmark
+  public BooleanFormula and() {
+    return bmgr.and(literals);
+  }
+
+  @Benchmark
+  public BooleanFormula or() {
+    return bmgr.or(literals);
+  }
+}
@@ -0,0 +1,85 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+
+/**
+ * Measures the traversal of formulas with and without canonical wrappers for equal solver terms.
+ *
+ * <p>Currently, only Z3 supports canonical wrappers, via the option {@code
+ * solver.z3.canonicalizeFormulas}, thus this benchmark should be run with {@code -p solver=Z3}. The
+ * allocation rate is reported by the GC profiler of JMH ({@code -prof gc}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CanonicalFormulaBenchmark extends AbstractSolverBenchmark {
+
+  @Param({"true", "false"})
+  private boolean canonicalizeFormulas;
+
+  @Param({"100", "1000"})
+  private int size;
+
+  private BooleanFormula formula;
+
+  @Override
+  protected Configuration createConfiguration() throws InvalidConfigurationException {
+    return Configuration.builder()
+        .setOption("solver.z3.canonicalizeFormulas", String.valueOf(canonicalizeFormulas))
+        .build();
+  }
+
+  @Setup
+  public void setUpFormula() {
+    formula = generateHardFormula(size);
+  }
+
+  /** Collect all subformulas, which wraps every operand and compares them via hash set. */
+  @Benchmark
+  public Set<Formula> collectSubformulas() {
+    Set<Formula> subformulas = new HashSet<>();
+    mgr.visitRecursively(
+        formula,
+        new DefaultFormulaVisitor<>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula f) {
+            subformulas.add(f);
+            return TraversalProcess.CONTINUE;
+          }
+        });
+    return subformulas;
+  }
+
+  @Benchmark
+  public BooleanFormula transformRecursively() {
+    return mgr.transformRecursively(formula, new FormulaTransformationVisitor(mgr) {});
+  }
+}
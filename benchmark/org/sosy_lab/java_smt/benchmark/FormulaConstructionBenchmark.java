@@ -0,0 +1,55 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+/** Measures the construction of formulas via the theory-specific formula managers. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormulaConstructionBenchmark extends AbstractSolverBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int size;
+
+  @Benchmark
+  public BooleanFormula booleanConstruction() {
+    List<BooleanFormula> clauses = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      BooleanFormula a = bmgr.makeVariable("a" + i);
+      BooleanFormula b = bmgr.makeVariable("b" + i);
+      clauses.add(bmgr.or(bmgr.and(a, bmgr.not(b)), bmgr.implication(b, a)));
+    }
+    return bmgr.and(clauses);
+  }
+
+  @Benchmark
+  public BooleanFormula integerConstruction() {
+    return generateHardIntegerFormula(size);
+  }
+
+  @Benchmark
+  public BooleanFormula bitvectorConstruction() {
+    return generateHardBitvectorFormula(size);
+  }
+}
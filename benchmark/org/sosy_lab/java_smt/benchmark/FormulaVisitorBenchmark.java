@@ -0,0 +1,110 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+
+/** Measures the recursive traversal and transformation of formulas. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormulaVisitorBenchmark extends AbstractSolverBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int size;
+
+  private BooleanFormula formula;
+
+  @Setup
+  public void setUpFormula() {
+    formula = generateHardFormula(size);
+  }
+
+  @Benchmark
+  public void visitRecursively(Blackhole bh) {
+    mgr.visitRecursively(
+        formula,
+        new DefaultFormulaVisitor<>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula f) {
+            bh.consume(f);
+            return TraversalProcess.CONTINUE;
+          }
+        });
+  }
+
+  /**
+   * Baseline for {@link #visitRecursively}: the same traversal with a {@code HashSet<Formula>} as
+   * seen-set, which calls {@link Formula#hashCode} and {@link Formula#equals} for each operand.
+   */
+  @Benchmark
+  public void visitRecursivelyWithFormulaSet(Blackhole bh) {
+    Set<Formula> seen = new HashSet<>();
+    Deque<Formula> toVisit = new ArrayDeque<>();
+    seen.add(formula);
+    toVisit.push(formula);
+    DefaultFormulaVisitor<Void> visitor =
+        new DefaultFormulaVisitor<>() {
+          @Override
+          protected Void visitDefault(Formula f) {
+            bh.consume(f);
+            return null;
+          }
+
+          @Override
+          public Void visitFunction(
+              Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+            bh.consume(f);
+            for (Formula arg : args) {
+              if (seen.add(arg)) {
+                toVisit.push(arg);
+              }
+            }
+            return null;
+          }
+        };
+    while (!toVisit.isEmpty()) {
+      mgr.visit(toVisit.pop(), visitor);
+    }
+  }
+
+  @Benchmark
+  public BooleanFormula transformRecursively() {
+    return mgr.transformRecursively(formula, new FormulaTransformationVisitor(mgr) {});
+  }
+
+  @Benchmark
+  public Map<String, Formula> extractVariablesAndUFs() {
+    return mgr.extractVariablesAndUFs(formula);
+  }
+}
@@ -0,0 +1,116 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.IntegerFormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Measures the computation of sequence interpolants for an unsatisfiable chain of blocks, via the
+ * solver-specific implementation and via a loop of single interpolation queries over growing
+ * prefixes of the chain.
+ *
+ * <p>Both variants pass each prefix of the chain to the solver, thus both are quadratic in the
+ * number of blocks. For MathSAT5, the sequence variant only avoids building a boxed collection per
+ * prefix.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpolationBenchmark extends AbstractSolverBenchmark {
+
+  @Param({"10", "100", "500"})
+  private int blocks;
+
+  private InterpolatingProverEnvironment<?> prover;
+  private List<Set<?>> partitions;
+
+  @Setup
+  public void setUpProver() throws InterruptedException, SolverException {
+    IntegerFormulaManager imgr = mgr.getIntegerFormulaManager();
+    prover = context.newProverEnvironmentWithInterpolation();
+    partitions = new ArrayList<>(blocks + 1);
+
+    // x0 = 0, x1 = x0 + 1, ..., xN < 0
+    IntegerFormula previous = imgr.makeVariable("x0");
+    partitions.add(push(imgr.equal(previous, imgr.makeNumber(0))));
+    for (int i = 1; i <= blocks; i++) {
+      IntegerFormula current = imgr.makeVariable("x" + i);
+      partitions.add(push(imgr.equal(current, imgr.add(previous, imgr.makeNumber(1)))));
+      previous = current;
+    }
+    partitions.add(push(imgr.lessThan(previous, imgr.makeNumber(0))));
+
+    if (!prover.isUnsat()) {
+      throw new AssertionError("chain of blocks is expected to be unsatisfiable");
+    }
+  }
+
+  private Set<?> push(BooleanFormula pFormula) throws InterruptedException {
+    return ImmutableSet.of(prover.push(pFormula));
+  }
+
+  @TearDown
+  public void tearDownProver() {
+    if (prover != null) {
+      prover.close();
+    }
+  }
+
+  @Benchmark
+  public List<BooleanFormula> sequenceInterpolants() throws SolverException, InterruptedException {
+    return getSeqInterpolants(prover);
+  }
+
+  @Benchmark
+  public List<BooleanFormula> singleInterpolants() throws SolverException, InterruptedException {
+    return getSingleInterpolants(prover);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> List<BooleanFormula> getSeqInterpolants(InterpolatingProverEnvironment<T> pProver)
+      throws SolverException, InterruptedException {
+    return pProver.getSeqInterpolants((List<Set<T>>) (List<?>) partitions);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> List<BooleanFormula> getSingleInterpolants(InterpolatingProverEnvironment<T> pProver)
+      throws SolverException, InterruptedException {
+    List<Set<T>> typedPartitions = (List<Set<T>>) (List<?>) partitions;
+    List<BooleanFormula> itps = new ArrayList<>(typedPartitions.size() - 1);
+    for (int i = 1; i < typedPartitions.size(); i++) {
+      itps.add(
+          pProver.getInterpolant(
+              ImmutableList.copyOf(Iterables.concat(typedPartitions.subList(0, i)))));
+    }
+    return itps;
+  }
+}
@@ -0,0 +1,110 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sosy_lab.java_smt.api.BitvectorFormulaManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.IntegerFormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Measures the evaluation of many terms in a model, like a state vector of bitvectors, where many
+ * terms share the same value. Each invocation uses a fresh model, such that no converted value
+ * survives from one invocation to the next.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelEvaluationBenchmark extends AbstractSolverBenchmark {
+
+  @Param({"1000", "10000"})
+  private int size;
+
+  /** Number of distinct values in the model, fewer values allow more sharing of conversions. */
+  @Param({"1", "16", "10000"})
+  private int distinctValues;
+
+  private List<Formula> terms;
+  private BooleanFormula constraint;
+  private ProverEnvironment prover;
+
+  @Setup
+  public void setUpFormulas() {
+    terms = new ArrayList<>(size);
+    List<BooleanFormula> constraints = new ArrayList<>(size);
+    if (supportsBitvectors()) {
+      BitvectorFormulaManager bvmgr = mgr.getBitvectorFormulaManager();
+      for (int i = 0; i < size; i++) {
+        Formula var = bvmgr.makeVariable(32, "v" + i);
+        terms.add(var);
+        constraints.add(bvmgr.equal(var, bvmgr.makeBitvector(32, i % distinctValues)));
+      }
+    } else {
+      IntegerFormulaManager imgr = mgr.getIntegerFormulaManager();
+      for (int i = 0; i < size; i++) {
+        Formula var = imgr.makeVariable("v" + i);
+        terms.add(var);
+        constraints.add(imgr.equal(var, imgr.makeNumber(i % distinctValues)));
+      }
+    }
+    constraint = bmgr.and(constraints);
+  }
+
+  @Setup(Level.Iteration)
+  public void setUpProver() throws InterruptedException, SolverException {
+    prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS);
+    prover.addConstraint(constraint);
+    if (prover.isUnsat()) {
+      throw new AssertionError("benchmark formula is expected to be satisfiable");
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDownProver() {
+    prover.close();
+  }
+
+  @Benchmark
+  public void evaluateEach(Blackhole bh) throws SolverException {
+    try (Model model = prover.getModel()) {
+      for (Formula term : terms) {
+        bh.consume(model.evaluate(term));
+      }
+    }
+  }
+
+  @Benchmark
+  public Map<Formula, Object> evaluateAll() throws SolverException {
+    try (Model model = prover.getModel()) {
+      return model.evaluateAll(terms);
+    }
+  }
+}
@@ -0,0 +1,140 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import com.google.common.base.Splitter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.IntegerFormulaManager;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.SolverContext;
+
+/**
+ * Measures the growth of native memory when constructing many formulas that are dropped right
+ * away, with and without releasing the native terms of unreachable formulas.
+ *
+ * <p>Currently, only Z3 supports releasing native terms, via the option {@code
+ * solver.z3.usePhantomReferences}. The growth of the resident set size of the JVM process is
+ * reported as secondary result, which is only available on Linux.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(1)
+public class NativeMemoryBenchmark {
+
+  @Param({"true", "false"})
+  private boolean usePhantomReferences;
+
+  @Param({"10000000"})
+  private int formulas;
+
+  private SolverContext context;
+  private IntegerFormulaManager imgr;
+
+  /** Secondary results of the benchmark, reported by JMH next to the primary result. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class MemoryCounters {
+
+    /** Growth of the resident set size in MiB, or -1 if unknown. */
+    public long residentMemoryGrowth;
+
+    private long residentMemoryBefore;
+
+    @Setup(Level.Iteration)
+    public void measureBefore() {
+      residentMemoryBefore = getResidentMemory();
+    }
+
+    @TearDown(Level.Iteration)
+    public void measureAfter() {
+      long residentMemoryAfter = getResidentMemory();
+      residentMemoryGrowth =
+          residentMemoryBefore < 0 || residentMemoryAfter < 0
+              ? -1
+              : (residentMemoryAfter - residentMemoryBefore) >> 20;
+    }
+  }
+
+  @Setup
+  public void setUp() throws InvalidConfigurationException {
+    Configuration config =
+        Configuration.builder()
+            .setOption("solver.z3.usePhantomReferences", String.valueOf(usePhantomReferences))
+            .build();
+    context =
+        SolverContextFactory.createSolverContext(
+            config, LogManager.createNullLogManager(), ShutdownNotifier.createDummy(), Solvers.Z3);
+    imgr = context.getFormulaManager().getIntegerFormulaManager();
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (context != null) {
+      context.close();
+    }
+  }
+
+  @Benchmark
+  public void constructAndDrop(MemoryCounters counters, Blackhole bh) {
+    IntegerFormula x = imgr.makeVariable("x");
+    for (int i = 0; i < formulas; i++) {
+      // each formula is a new native term, that is unreachable after the iteration
+      bh.consume(imgr.lessThan(imgr.add(x, imgr.makeNumber(i)), imgr.makeNumber(i + 1)));
+    }
+  }
+
+  /** The resident set size of this process in bytes, or -1 if unknown. */
+  private static long getResidentMemory() {
+    Path status = Path.of("/proc/self/status");
+    if (!Files.isReadable(status)) {
+      return -1;
+    }
+    try {
+      for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+        if (line.startsWith("VmRSS:")) {
+          // format: "VmRSS:     12345 kB"
+          List<String> parts = Splitter.on(' ').omitEmptyStrings().splitToList(line);
+          return Long.parseLong(parts.get(1)) * 1024;
+        }
+      }
+    } catch (IOException | NumberFormatException e) {
+      // ignore, the value is unknown
+    }
+    return -1;
+  }
+}
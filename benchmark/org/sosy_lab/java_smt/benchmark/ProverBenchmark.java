@@ -0,0 +1,90 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Measures the incremental usage of a prover, i.e., push/addConstraint/isUnsat/pop, and the
+ * retrieval of models.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProverBenchmark extends AbstractSolverBenchmark {
+
+  @Param({"5", "10"})
+  private int size;
+
+  private BooleanFormula unsatFormula;
+  private BooleanFormula satFormula;
+  private ProverEnvironment prover;
+
+  @Setup
+  public void setUpFormulas() {
+    unsatFormula = generateHardFormula(size);
+    // the generated formula is UNSAT, thus its negation is SAT and the model covers all symbols.
+    satFormula = bmgr.not(unsatFormula);
+  }
+
+  @Setup(Level.Iteration)
+  public void setUpProver() {
+    prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS);
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDownProver() {
+    prover.close();
+  }
+
+  @Benchmark
+  public boolean pushAddConstraintIsUnsatPop() throws InterruptedException, SolverException {
+    prover.push();
+    prover.addConstraint(unsatFormula);
+    boolean isUnsat = prover.isUnsat();
+    prover.pop();
+    return isUnsat;
+  }
+
+  @Benchmark
+  public List<ValueAssignment> modelAsList() throws InterruptedException, SolverException {
+    prover.push();
+    prover.addConstraint(satFormula);
+    try {
+      if (prover.isUnsat()) {
+        throw new AssertionError("benchmark formula is expected to be satisfiable");
+      }
+      try (Model model = prover.getModel()) {
+        return model.asList();
+      }
+    } finally {
+      prover.pop();
+    }
+  }
+}
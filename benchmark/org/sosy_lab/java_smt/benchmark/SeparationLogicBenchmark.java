@@ -0,0 +1,86 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.IntegerFormulaManager;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Measures the latency of a single satisfiability check depending on the depth of the assertion
+ * stack of a prover with separation logic. Currently, only CVC4 and CVC5 support separation logic,
+ * thus this benchmark should be run with {@code -p solver=CVC4,CVC5}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeparationLogicBenchmark extends AbstractSolverBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int depth;
+
+  private ProverEnvironment prover;
+  private BooleanFormula query;
+
+  @Setup
+  public void setUpProver() throws InterruptedException {
+    IntegerFormulaManager imgr = mgr.getIntegerFormulaManager();
+    prover = context.newProverEnvironment(ProverOptions.ENABLE_SEPARATION_LOGIC);
+
+    // x0 < x1 < ... < xN, with one level per constraint, and a heap with one cell
+    IntegerFormula previous = imgr.makeVariable("x0");
+    for (int i = 1; i <= depth; i++) {
+      IntegerFormula current = imgr.makeVariable("x" + i);
+      prover.push(imgr.lessThan(previous, current));
+      previous = current;
+    }
+    IntegerFormula address = imgr.makeVariable("address");
+    BooleanFormula pointsTo = mgr.getSLFormulaManager().makePointsTo(address, previous);
+    prover.push(pointsTo);
+    query = imgr.greaterThan(address, imgr.makeNumber(0));
+  }
+
+  @TearDown
+  public void tearDownProver() {
+    if (prover != null) {
+      prover.close();
+    }
+  }
+
+  /** A check after a new assertion on top of the stack, as in an incremental analysis. */
+  @Benchmark
+  public boolean checkAfterPush() throws SolverException, InterruptedException {
+    prover.push(query);
+    boolean result = prover.isUnsat();
+    prover.pop();
+    return result;
+  }
+
+  /** A repeated check without changes of the stack. */
+  @Benchmark
+  public boolean checkUnchanged() throws SolverException, InterruptedException {
+    return prover.isUnsat();
+  }
+}
@@ -0,0 +1,75 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Measures the contention of several threads sharing one synchronized context, with the workload
+ * of SolverConcurrencyTest. The number of threads can be changed with the JMH option "-t".
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class SynchronizedContextBenchmark extends AbstractSolverBenchmark {
+
+  @Param({"false", "true"})
+  private boolean useSeperateProvers;
+
+  @Param({"5"})
+  private int size;
+
+  private BooleanFormula formula;
+
+  @Override
+  protected Configuration createConfiguration() throws InvalidConfigurationException {
+    return Configuration.builder()
+        .setOption("solver.synchronize", "true")
+        .setOption("solver.synchronized.useSeperateProvers", String.valueOf(useSeperateProvers))
+        .build();
+  }
+
+  @Setup
+  public void setUpFormula() {
+    formula = generateHardFormula(size);
+  }
+
+  /** All threads build formulas in the shared context. */
+  @Benchmark
+  public BooleanFormula constructFormula() {
+    return generateHardFormula(size);
+  }
+
+  /** All threads solve the same query, each with its own prover. */
+  @Benchmark
+  public boolean solveWithOwnProver() throws SolverException, InterruptedException {
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.addConstraint(formula);
+      return prover.isUnsat();
+    }
+  }
+}
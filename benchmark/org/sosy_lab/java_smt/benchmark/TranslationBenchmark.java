@@ -0,0 +1,104 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import com.google.common.base.Splitter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.test.HardIntegerFormulaGenerator;
+
+/**
+ * Compares the translation of formulas between contexts of different solvers via the formula
+ * managers with the translation via SMT-LIB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranslationBenchmark {
+
+  /** Source and target solver, separated by a colon. */
+  @Param({"Z3:SMTINTERPOL", "MATHSAT5:PRINCESS"})
+  private String solvers;
+
+  @Param({"10", "100", "1000"})
+  private int size;
+
+  private SolverContext sourceContext;
+  private SolverContext targetContext;
+  private FormulaManager sourceMgr;
+  private FormulaManager targetMgr;
+  private BooleanFormula formula;
+
+  @Setup
+  public void setUp() throws InvalidConfigurationException {
+    List<String> names = Splitter.on(':').splitToList(solvers);
+    sourceContext = createContext(Solvers.valueOf(names.get(0)));
+    targetContext = createContext(Solvers.valueOf(names.get(1)));
+    sourceMgr = sourceContext.getFormulaManager();
+    targetMgr = targetContext.getFormulaManager();
+    formula =
+        new HardIntegerFormulaGenerator(
+                sourceMgr.getIntegerFormulaManager(), sourceMgr.getBooleanFormulaManager())
+            .generate(size);
+  }
+
+  private static SolverContext createContext(Solvers solver)
+      throws InvalidConfigurationException {
+    return SolverContextFactory.createSolverContext(
+        Configuration.defaultConfiguration(),
+        LogManager.createNullLogManager(),
+        ShutdownNotifier.createDummy(),
+        solver);
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (sourceContext != null) {
+      sourceContext.close();
+    }
+    if (targetContext != null) {
+      targetContext.close();
+    }
+  }
+
+  @Benchmark
+  public BooleanFormula translateFrom() {
+    return targetMgr.translateFrom(formula, sourceMgr);
+  }
+
+  /** Baseline for {@link #translateFrom}: dump the formula to SMT-LIB and parse it again. */
+  @Benchmark
+  public BooleanFormula translateViaSmtLib() {
+    return targetMgr.parse(sourceMgr.dumpFormula(formula).toString());
+  }
+}
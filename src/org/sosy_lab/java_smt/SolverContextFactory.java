@@ -10,7 +10,9 @@ package org.sosy_lab.java_smt;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -26,7 +28,11 @@ import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.java_smt.api.FloatingPointRoundingMode;
 import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.basicimpl.AbstractNumeralFormulaManager.NonLinearArithmetic;
+import org.sosy_lab.java_smt.delegate.allsat.ParallelAllSatSolverContext;
+import org.sosy_lab.java_smt.delegate.caching.CachingSolverContext;
+import org.sosy_lab.java_smt.delegate.interpolation.ParallelInterpolationSolverContext;
 import org.sosy_lab.java_smt.delegate.logging.LoggingSolverContext;
+import org.sosy_lab.java_smt.delegate.portfolio.PortfolioSolverContext;
 import org.sosy_lab.java_smt.delegate.statistics.StatisticsSolverContext;
 import org.sosy_lab.java_smt.delegate.synchronize.SynchronizedSolverContext;
 import org.sosy_lab.java_smt.solvers.boolector.BoolectorSolverContext;
@@ -92,6 +98,38 @@ public class SolverContextFactory {
       description = "Counts all operations and interactions towards the SMT solver.")
   private boolean collectStatistics = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Cache the results of satisfiability queries, such that identical queries of provers"
+              + " from the same context are answered without calling the solver.")
+  private boolean cacheQueries = false;
+
+  @Option(
+      secure = true,
+      description =
+          "Solve the queries of each prover with a portfolio of the given solvers running in"
+              + " parallel and use the first result. Formulas are still built with the solver"
+              + " chosen via option 'solver.solver' and translated into the other solvers.")
+  private List<Solvers> portfolio = ImmutableList.of();
+
+  @Option(
+      secure = true,
+      description =
+          "Split AllSAT queries into cubes over the first important predicates and enumerate the"
+              + " models of each cube in parallel with its own solver context.")
+  private boolean parallelAllSat = false;
+
+  @Option(
+      secure = true,
+      description =
+          "Compute the interpolants for the cut points of sequence interpolation queries in"
+              + " parallel, where each thread solves the query again with its own solver context."
+              + " Chunks whose first interpolant does not follow from the previous interpolant and"
+              + " partition are computed again, or the query is computed sequentially, such that"
+              + " the sequence is inductive.")
+  private boolean parallelInterpolation = false;
+
   @Option(secure = true, description = "Default rounding mode for floating point operations.")
   private FloatingPointRoundingMode floatingPointRoundingMode =
       FloatingPointRoundingMode.NEAREST_TIES_TO_EVEN;
@@ -202,7 +240,7 @@ public class SolverContextFactory {
       throws InvalidConfigurationException {
     SolverContext context;
     try {
-      context = generateContext0(solverToCreate);
+      context = generateContext0(solverToCreate, shutdownNotifier);
     } catch (UnsatisfiedLinkError | NoClassDefFoundError e) {
       throw new InvalidConfigurationException(
           String.format(
@@ -212,9 +250,26 @@ public class SolverContextFactory {
           e);
     }
 
+    if (!portfolio.isEmpty()) {
+      context =
+          new PortfolioSolverContext(context, portfolio, this::generateContext0, shutdownNotifier);
+    }
+    if (parallelAllSat) {
+      context =
+          new ParallelAllSatSolverContext(
+              config, context, this::generateContext0, shutdownNotifier);
+    }
+    if (parallelInterpolation) {
+      context =
+          new ParallelInterpolationSolverContext(
+              config, context, this::generateContext0, shutdownNotifier);
+    }
     if (useLogger) {
       context = new LoggingSolverContext(logger, context);
     }
+    if (cacheQueries) {
+      context = new CachingSolverContext(config, context);
+    }
     if (synchronize) {
       context = new SynchronizedSolverContext(config, logger, shutdownNotifier, context);
     }
@@ -225,13 +280,14 @@ public class SolverContextFactory {
     return context;
   }
 
-  private SolverContext generateContext0(Solvers solverToCreate)
+  private SolverContext generateContext0(
+      Solvers solverToCreate, ShutdownNotifier pShutdownNotifier)
       throws InvalidConfigurationException {
     switch (solverToCreate) {
       case CVC4:
         return CVC4SolverContext.create(
             logger,
-            shutdownNotifier,
+            pShutdownNotifier,
             (int) randomSeed,
             nonLinearArithmetic,
             floatingPointRoundingMode,
@@ -240,7 +296,7 @@ public class SolverContextFactory {
       case CVC5:
         return CVC5SolverContext.create(
             logger,
-            shutdownNotifier,
+            pShutdownNotifier,
             (int) randomSeed,
             nonLinearArithmetic,
             floatingPointRoundingMode,
@@ -248,13 +304,13 @@ public class SolverContextFactory {
 
       case SMTINTERPOL:
         return SmtInterpolSolverContext.create(
-            config, logger, shutdownNotifier, logfile, randomSeed, nonLinearArithmetic);
+            config, logger, pShutdownNotifier, logfile, randomSeed, nonLinearArithmetic);
 
       case MATHSAT5:
         return Mathsat5SolverContext.create(
             logger,
             config,
-            shutdownNotifier,
+            pShutdownNotifier,
             logfile,
             randomSeed,
             floatingPointRoundingMode,
@@ -265,7 +321,7 @@ public class SolverContextFactory {
         return Z3SolverContext.create(
             logger,
             config,
-            shutdownNotifier,
+            pShutdownNotifier,
             logfile,
             randomSeed,
             floatingPointRoundingMode,
@@ -274,13 +330,14 @@ public class SolverContextFactory {
 
       case PRINCESS:
         return PrincessSolverContext.create(
-            config, shutdownNotifier, logfile, (int) randomSeed, nonLinearArithmetic);
+            config, pShutdownNotifier, logfile, (int) randomSeed, nonLinearArithmetic);
 
       case YICES2:
-        return Yices2SolverContext.create(nonLinearArithmetic, shutdownNotifier, loader);
+        return Yices2SolverContext.create(nonLinearArithmetic, pShutdownNotifier, loader);
 
       case BOOLECTOR:
-        return BoolectorSolverContext.create(config, shutdownNotifier, logfile, randomSeed, loader);
+        return BoolectorSolverContext.create(
+            config, pShutdownNotifier, logfile, randomSeed, loader);
 
       default:
         throw new AssertionError("no solver selected");
@@ -14,6 +14,8 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 
@@ -69,6 +71,37 @@ public interface BasicProverEnvironment<T> extends AutoCloseable {
   /** Check whether the conjunction of all formulas on the stack is unsatisfiable. */
   boolean isUnsat() throws SolverException, InterruptedException;
 
+  /**
+   * Check whether the conjunction of all formulas on the stack is unsatisfiable, like {@link
+   * #isUnsat()}, but run the check on the given executor instead of blocking the calling thread.
+   * The returned future completes with the result of {@link #isUnsat()}, or exceptionally with its
+   * {@link SolverException} or {@link InterruptedException}.
+   *
+   * <p>Cancelling the returned future interrupts the check, if the solver supports interrupting a
+   * single prover, and otherwise discards its result. Afterwards, the prover can not be used for
+   * further checks and should be closed. The prover must not be used in any other way until the
+   * returned future is done.
+   *
+   * <p>The default implementation just calls {@link #isUnsat()} on the executor and does not
+   * support interrupting the check.
+   */
+  default CompletableFuture<Boolean> isUnsatAsync(Executor executor) {
+    CompletableFuture<Boolean> result = new CompletableFuture<>();
+    executor.execute(
+        () -> {
+          if (result.isDone()) {
+            return; // cancelled before the check started
+          }
+          try {
+            result.complete(isUnsat());
+          } catch (Throwable t) {
+            // also errors have to reach the caller, otherwise the future would never complete
+            result.completeExceptionally(t);
+          }
+        });
+    return result;
+  }
+
   /**
    * Check whether the conjunction of all formulas on the stack together with the list of
    * assumptions is satisfiable.
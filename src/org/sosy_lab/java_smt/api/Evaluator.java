@@ -8,7 +8,11 @@
 
 package org.sosy_lab.java_smt.api;
 
+import com.google.common.collect.ImmutableMap;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
@@ -99,6 +103,28 @@ public interface Evaluator extends AutoCloseable {
    */
   @Nullable String evaluate(StringFormula formula);
 
+  /**
+   * Evaluate all given formulas substituting the values from the model, like {@link
+   * #evaluate(Formula)} does for each single formula.
+   *
+   * <p>Evaluating many formulas at once can be cheaper than evaluating them one after another,
+   * e.g., because identical values are converted only once.
+   *
+   * @param formulas Input formulas to be evaluated.
+   * @return a map from the given formulas to their evaluations. Formulas for which the solver does
+   *     not provide an evaluation are missing in the map.
+   */
+  default <T extends Formula> ImmutableMap<T, Object> evaluateAll(Collection<T> formulas) {
+    Map<T, Object> evaluations = new LinkedHashMap<>();
+    for (T formula : formulas) {
+      Object value = evaluate(formula);
+      if (value != null) {
+        evaluations.put(formula, value);
+      }
+    }
+    return ImmutableMap.copyOf(evaluations);
+  }
+
   /**
    * Free resources associated with this evaluator (existing {@link Formula} instances stay valid,
    * but {@link #evaluate(Formula)} etc. must not be called again).
@@ -10,8 +10,15 @@ package org.sosy_lab.java_smt.api;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
@@ -140,6 +147,45 @@ public interface FormulaManager {
    */
   BooleanFormula parse(String s) throws IllegalArgumentException;
 
+  /**
+   * Parse all assertions of an SMT-LIB input and pass them to the consumer, one formula per
+   * assertion and in the order of the input. In contrast to {@link #parse(String)}, the input is
+   * read incrementally and never kept in memory as a whole, which allows parsing very large files.
+   *
+   * <p>Declarations and definitions are handled as in {@link #parse(String)}, other commands like
+   * <code>push/pop</code> or <code>set-info</code> are ignored.
+   *
+   * @param input the SMT-LIB input, which is not closed by this method.
+   * @param consumer is called for each assertion of the input.
+   * @throws IOException If reading the input fails.
+   * @throws IllegalArgumentException If the input cannot be parsed.
+   */
+  void parseAssertions(Reader input, Consumer<BooleanFormula> consumer)
+      throws IOException, IllegalArgumentException;
+
+  /**
+   * Parse all assertions of an SMT-LIB input, see {@link #parseAssertions(Reader, Consumer)}.
+   *
+   * @return the conjunction of all assertions of the input.
+   */
+  default BooleanFormula parse(Reader input) throws IOException, IllegalArgumentException {
+    List<BooleanFormula> assertions = new ArrayList<>();
+    parseAssertions(input, assertions::add);
+    return getBooleanFormulaManager().and(assertions);
+  }
+
+  /**
+   * Parse all assertions of an SMT-LIB file with UTF-8 encoding, see {@link
+   * #parseAssertions(Reader, Consumer)}.
+   *
+   * @return the conjunction of all assertions of the file.
+   */
+  default BooleanFormula parse(Path file) throws IOException, IllegalArgumentException {
+    try (Reader input = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      return parse(input);
+    }
+  }
+
   /**
    * Serialize an input formula to an SMT-LIB format. Very useful when passing formulas between
    * different solvers.
@@ -218,6 +264,17 @@ public interface FormulaManager {
    */
   <T extends Formula> T transformRecursively(T f, FormulaTransformationVisitor pFormulaVisitor);
 
+  /**
+   * Create a session for transforming several formulas with the same visitor, like {@link
+   * #transformRecursively}. The session keeps the transformed subformulas across calls, such that
+   * shared subformulas are only transformed once. The caller owns the session and should close it
+   * to release the kept formulas.
+   *
+   * @param pFormulaVisitor Transformation described by the user, must be free of side effects.
+   */
+  FormulaTransformationSession newTransformationSession(
+      FormulaTransformationVisitor pFormulaVisitor);
+
   /**
    * Extract the names of all free variables and UFs in a formula.
    *
@@ -251,15 +308,22 @@ public interface FormulaManager {
 
   /**
    * Translates the formula from another context into the context represented by {@code this}.
-   * Default implementation relies on string serialization ({@link #dumpFormula(BooleanFormula)} and
-   * {@link #parse(String)}), but each solver may implement more efficient translation between its
-   * own contexts.
+   * Default implementation visits the formula and rebuilds it with the formula managers of this
+   * context. Formulas with operators that can not be rebuilt this way, e.g., quantifiers, are
+   * translated via string serialization ({@link #dumpFormula(BooleanFormula)} and {@link
+   * #parse(String)}). Each solver may implement more efficient translation between its own
+   * contexts.
+   *
+   * <p>Terms of other types than boolean can also be translated, e.g., for evaluating them in a
+   * model of the other context. String serialization is only available for boolean formulas, thus
+   * such terms must be supported by the formula managers of this context.
    *
    * @param formula Formula belonging to {@code otherContext}.
    * @param otherManager Formula manager belonging to the other context.
    * @return Formula belonging to {@code this} context.
+   * @throws UnsupportedOperationException if a term that is not boolean can not be translated.
    */
-  BooleanFormula translateFrom(BooleanFormula formula, FormulaManager otherManager);
+  <T extends Formula> T translateFrom(T formula, FormulaManager otherManager);
 
   /**
    * Check whether the given String can be used as symbol/name for variables or undefined functions.
@@ -0,0 +1,47 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.api;
+
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
+
+/**
+ * A recursive transformation of formulas with a fixed {@link FormulaTransformationVisitor} that
+ * keeps the transformed subformulas across several calls. Transforming a formula that shares
+ * subformulas with a previously transformed formula, e.g., an incrementally growing formula, only
+ * processes the new parts.
+ *
+ * <p>The visitor of a session must be free of side effects, i.e., transforming the same formula
+ * twice must yield the same result. The session keeps a bounded number of transformed subformulas
+ * until it is closed, subformulas that were evicted are transformed again when needed. A session is
+ * not thread-safe, unless it is created by a synchronized formula manager.
+ *
+ * <p>Instances can be created with {@link FormulaManager#newTransformationSession}:
+ *
+ * <pre>{@code
+ * try (FormulaTransformationSession session = fmgr.newTransformationSession(visitor)) {
+ *   for (BooleanFormula f : formulas) {
+ *     result.add(session.transform(f));
+ *   }
+ * }
+ * }</pre>
+ */
+public interface FormulaTransformationSession extends AutoCloseable {
+
+  /**
+   * Transform the formula recursively, as done by {@link FormulaManager#transformRecursively}, but
+   * re-use the results of previous calls of this session.
+   *
+   * @throws IllegalStateException if the session is already closed.
+   */
+  <T extends Formula> T transform(T f);
+
+  /** Release all kept results. The session can not be used afterwards. */
+  @Override
+  void close();
+}
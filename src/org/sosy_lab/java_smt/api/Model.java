@@ -11,6 +11,7 @@ package org.sosy_lab.java_smt.api;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
@@ -49,6 +50,10 @@ public interface Model extends Evaluator, Iterable<ValueAssignment>, AutoCloseab
    *       within a quantified context, some value assignments can be missing in the iteration.
    *       Please use a direct evaluation query to get the evaluation in such a case.
    * </ul>
+   *
+   * <p>Some solvers compute the assignments lazily during the iteration, such that iterating over
+   * only a part of a large model is cheaper than building the whole list. Such an iterator must
+   * not be used after closing the model.
    */
   @Override
   default Iterator<ValueAssignment> iterator() {
@@ -58,6 +63,18 @@ public interface Model extends Evaluator, Iterable<ValueAssignment>, AutoCloseab
   /** Build a list of assignments that stays valid after closing the model. */
   ImmutableList<ValueAssignment> asList();
 
+  /**
+   * Build a list of all assignments for the symbol with the given name, e.g., the value of a
+   * variable, all known entries of an array, or all known applications of an uninterpreted
+   * function. The list stays valid after closing the model.
+   *
+   * <p>Some solvers only compute the assignments for the given symbol, such that this method is
+   * cheaper than filtering {@link #asList()} for large models.
+   */
+  default ImmutableList<ValueAssignment> getAssignments(String name) {
+    return ImmutableList.copyOf(Iterators.filter(iterator(), va -> name.equals(va.getName())));
+  }
+
   /**
    * Pretty-printing of the model values.
    *
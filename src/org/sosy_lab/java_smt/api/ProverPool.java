@@ -0,0 +1,41 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.api;
+
+import com.google.common.collect.ImmutableMap;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+
+/**
+ * A pool of {@link ProverEnvironment}s of one {@link SolverContext}. Creating a prover is expensive
+ * for some solvers, thus a closed prover from this pool is reset to an empty assertion stack and
+ * kept for the next request with the same options.
+ *
+ * <p>The pool can be used from several threads, if the context allows this. A prover itself must
+ * not be used after it was closed, even if it is kept in the pool.
+ *
+ * <p>Instances can be created with {@link SolverContext#newProverPool(int)}.
+ */
+public interface ProverPool extends AutoCloseable {
+
+  /**
+   * Get a prover with an empty assertion stack and the given options, either from the pool or a new
+   * one. Closing the returned prover returns it to the pool.
+   */
+  ProverEnvironment getProverEnvironment(ProverOptions... options);
+
+  /**
+   * Get statistics about the pool, e.g., the number of created and reused provers and the time
+   * spent for creating provers.
+   */
+  ImmutableMap<String, String> getStatistics();
+
+  /** Close all provers in the pool. Provers that are still in use are closed when returned. */
+  @Override
+  void close();
+}
@@ -17,7 +17,7 @@ import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
  *
  * <p>If you wish to use multiple contexts (even for the same solver), create one SolverContext per
  * each. Formulas can be transferred between different contexts using {@link
- * FormulaManager#translateFrom(BooleanFormula, FormulaManager)}.
+ * FormulaManager#translateFrom(Formula, FormulaManager)}.
  */
 public interface SolverContext extends AutoCloseable {
 
@@ -85,6 +85,17 @@ public interface SolverContext extends AutoCloseable {
    */
   OptimizationProverEnvironment newOptimizationProverEnvironment(ProverOptions... options);
 
+  /**
+   * Create a pool of provers for this context, which re-uses the provers that are returned to the
+   * pool instead of creating new ones.
+   *
+   * <p>The pool is closed together with this context.
+   *
+   * @param maxIdleProvers the maximum number of unused provers kept per set of {@link
+   *     ProverOptions}.
+   */
+  ProverPool newProverPool(int maxIdleProvers);
+
   /**
    * Get version information out of the solver.
    *
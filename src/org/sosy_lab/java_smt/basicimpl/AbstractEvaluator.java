@@ -9,7 +9,12 @@
 package org.sosy_lab.java_smt.basicimpl;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.ArrayFormula;
@@ -28,6 +33,13 @@ public abstract class AbstractEvaluator<TFormulaInfo, TType, TEnv> implements Ev
   protected final FormulaCreator<TFormulaInfo, TType, TEnv, ?> creator;
   private boolean closed = false;
 
+  /**
+   * Converted values of evaluations, grouped by the class of the evaluated formula, because the
+   * conversion of a value can depend on the type of the formula, e.g., Integer or Rational. Many
+   * formulas evaluate to the same value, e.g., 0 or 1, thus we convert each value only once.
+   */
+  private final Map<Class<?>, Map<TFormulaInfo, Object>> convertedValues = new HashMap<>();
+
   protected AbstractEvaluator(
       AbstractProver<?> pProver, FormulaCreator<TFormulaInfo, TType, TEnv, ?> creator) {
     this.prover = pProver;
@@ -46,14 +58,13 @@ public abstract class AbstractEvaluator<TFormulaInfo, TType, TEnv> implements Ev
   @Nullable
   @Override
   public final BigInteger evaluate(IntegerFormula f) {
-    Preconditions.checkState(!isClosed());
-    return (BigInteger) evaluateImpl(creator.extractInfo(f));
+    return (BigInteger) evaluateWithCache(f);
   }
 
   @Nullable
   @Override
   public Rational evaluate(RationalFormula f) {
-    Object value = evaluateImpl(creator.extractInfo(f));
+    Object value = evaluateWithCache(f);
     if (value instanceof BigInteger) {
       // We simplified the value internally. Here, we need to convert it back to Rational.
       return Rational.ofBigInteger((BigInteger) value);
@@ -65,32 +76,58 @@ public abstract class AbstractEvaluator<TFormulaInfo, TType, TEnv> implements Ev
   @Nullable
   @Override
   public final Boolean evaluate(BooleanFormula f) {
-    Preconditions.checkState(!isClosed());
-    return (Boolean) evaluateImpl(creator.extractInfo(f));
+    return (Boolean) evaluateWithCache(f);
   }
 
   @Nullable
   @Override
   public final String evaluate(StringFormula f) {
-    Preconditions.checkState(!isClosed());
-    return (String) evaluateImpl(creator.extractInfo(f));
+    return (String) evaluateWithCache(f);
   }
 
   @Nullable
   @Override
   public final BigInteger evaluate(BitvectorFormula f) {
-    Preconditions.checkState(!isClosed());
-    return (BigInteger) evaluateImpl(creator.extractInfo(f));
+    return (BigInteger) evaluateWithCache(f);
   }
 
   @Nullable
   @Override
   public final Object evaluate(Formula f) {
-    Preconditions.checkState(!isClosed());
     Preconditions.checkArgument(
         !(f instanceof ArrayFormula),
         "cannot compute a simple constant evaluation for an array-formula");
-    return evaluateImpl(creator.extractInfo(f));
+    return evaluateWithCache(f);
+  }
+
+  @Override
+  public <T extends Formula> ImmutableMap<T, Object> evaluateAll(Collection<T> formulas) {
+    Preconditions.checkState(!isClosed());
+    ImmutableMap.Builder<T, Object> evaluations = ImmutableMap.builder();
+    for (T f : ImmutableSet.copyOf(formulas)) {
+      Object value = evaluate(f);
+      if (value != null) {
+        evaluations.put(f, value);
+      }
+    }
+    return evaluations.buildOrThrow();
+  }
+
+  /**
+   * Evaluate the formula like {@link #evaluateImpl}, but convert the evaluation only if the same
+   * value was not yet converted for a formula of the same type.
+   */
+  @Nullable
+  private Object evaluateWithCache(Formula f) {
+    Preconditions.checkState(!isClosed());
+    TFormulaInfo formula = creator.extractInfo(f);
+    TFormulaInfo evaluatedF = evalImpl(formula);
+    if (evaluatedF == null) {
+      return null;
+    }
+    return convertedValues
+        .computeIfAbsent(f.getClass(), c -> new HashMap<>())
+        .computeIfAbsent(evaluatedF, v -> creator.convertValue(formula, v));
   }
 
   /**
@@ -121,6 +158,7 @@ public abstract class AbstractEvaluator<TFormulaInfo, TType, TEnv> implements Ev
     if (prover != null) { // can be NULL for testing
       prover.unregisterEvaluator(this);
     }
+    convertedValues.clear();
     closed = true;
   }
 }
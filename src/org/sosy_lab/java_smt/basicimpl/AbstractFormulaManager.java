@@ -17,9 +17,19 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.java_smt.api.ArrayFormulaManager;
@@ -27,6 +37,7 @@ import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.FloatingPointFormulaManager;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaTransformationSession;
 import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.FormulaType.ArrayFormulaType;
 import org.sosy_lab.java_smt.api.FormulaType.BitvectorType;
@@ -95,6 +106,10 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
 
   private static final char ESCAPE = '$'; // just some allowed symbol, can be any char
 
+  /** Commands of SMT-LIB2 that declare or define the symbol given as their first argument. */
+  private static final ImmutableSet<String> SMTLIB2_DECLARATIONS =
+      ImmutableSet.of("declare-fun", "declare-const", "define-fun", "declare-sort", "define-sort");
+
   private final @Nullable AbstractArrayFormulaManager<TFormulaInfo, TType, TEnv, TFuncDecl>
       arrayManager;
 
@@ -249,6 +264,76 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
     return dumpFormula(formulaCreator.extractInfo(t));
   }
 
+  /**
+   * Parse the assertions of the input one after another with {@link #parse(String)}. Each assertion
+   * is prefixed with the declarations of the symbols that it depends on, such that only the
+   * declarations of the input, but not its assertions, are kept in memory.
+   */
+  @Override
+  public void parseAssertions(Reader pInput, Consumer<BooleanFormula> pConsumer)
+      throws IOException {
+    SmtLibCommandReader reader = new SmtLibCommandReader(pInput);
+    Map<String, Declaration> declarations = new HashMap<>();
+    int declarationCount = 0;
+    SmtLibCommandReader.Command command;
+    while ((command = reader.next()) != null) {
+      String name = command.getName();
+      List<String> symbols = command.getSymbols();
+      if (SMTLIB2_DECLARATIONS.contains(name) && symbols.size() > 1) {
+        List<Declaration> dependencies = getDeclarations(symbols, declarations);
+        declarations.put(
+            symbols.get(1), new Declaration(declarationCount++, command.getText(), dependencies));
+      } else if (name.equals("assert")) {
+        StringBuilder query = new StringBuilder();
+        for (Declaration declaration : getDependencyClosure(symbols, declarations)) {
+          query.append(declaration.text).append('\n');
+        }
+        query.append(command.getText());
+        pConsumer.accept(parse(query.toString()));
+      }
+      // other commands like push/pop/set-info are ignored
+    }
+  }
+
+  /** A declaration or definition of a symbol from an SMT-LIB input. */
+  private static final class Declaration {
+    private final int index;
+    private final String text;
+    private final List<Declaration> dependencies;
+
+    private Declaration(int pIndex, String pText, List<Declaration> pDependencies) {
+      index = pIndex;
+      text = pText;
+      dependencies = pDependencies;
+    }
+  }
+
+  private static List<Declaration> getDeclarations(
+      List<String> pSymbols, Map<String, Declaration> pDeclarations) {
+    List<Declaration> result = new ArrayList<>();
+    for (String symbol : pSymbols) {
+      Declaration declaration = pDeclarations.get(symbol);
+      if (declaration != null) {
+        result.add(declaration);
+      }
+    }
+    return result;
+  }
+
+  /** Return all declarations needed for the given symbols, in the order of the input. */
+  private static Collection<Declaration> getDependencyClosure(
+      List<String> pSymbols, Map<String, Declaration> pDeclarations) {
+    SortedMap<Integer, Declaration> result = new TreeMap<>();
+    Deque<Declaration> waitlist = new ArrayDeque<>(getDeclarations(pSymbols, pDeclarations));
+    while (!waitlist.isEmpty()) {
+      Declaration declaration = waitlist.pop();
+      if (result.put(declaration.index, declaration) == null) {
+        waitlist.addAll(declaration.dependencies);
+      }
+    }
+    return result.values();
+  }
+
   @Override
   public final <T extends Formula> FormulaType<T> getFormulaType(T formula) {
     return formulaCreator.getFormulaType(checkNotNull(formula));
@@ -357,6 +442,12 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
     return formulaCreator.transformRecursively(pFormulaVisitor, f);
   }
 
+  @Override
+  public FormulaTransformationSession newTransformationSession(
+      FormulaTransformationVisitor pFormulaVisitor) {
+    return new FormulaTransformationSessionImpl(formulaCreator, pFormulaVisitor);
+  }
+
   /**
    * Extract names of all free variables in a formula.
    *
@@ -384,11 +475,21 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
   }
 
   @Override
-  public BooleanFormula translateFrom(BooleanFormula formula, FormulaManager otherManager) {
+  public <T extends Formula> T translateFrom(T formula, FormulaManager otherManager) {
     if (this == otherManager) {
       return formula; // shortcut
     }
-    return parse(otherManager.dumpFormula(formula).toString());
+    try {
+      return new FormulaTranslator(this, otherManager).translate(formula);
+    } catch (UnsupportedOperationException | IllegalArgumentException e) {
+      if (!(formula instanceof BooleanFormula)) {
+        throw e; // SMT-LIB serialization is only available for boolean formulas
+      }
+      // some operator or symbol can not be rebuilt directly, SMT-LIB is more expressive
+      @SuppressWarnings("unchecked")
+      T result = (T) parse(otherManager.dumpFormula((BooleanFormula) formula).toString());
+      return result;
+    }
   }
 
   @Override
@@ -9,6 +9,11 @@
 package org.sosy_lab.java_smt.basicimpl;
 
 import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Function;
 import org.sosy_lab.java_smt.api.Model;
 
 @SuppressWarnings("ClassTypeParameterName")
@@ -20,6 +25,22 @@ public abstract class AbstractModel<TFormulaInfo, TType, TEnv>
     super(prover, creator);
   }
 
+  /**
+   * Build an iterator over the assignments of the given model entries, e.g., the symbols or the
+   * entries of a native model iterator. The assignments of an entry are only computed when the
+   * iteration reaches the entry.
+   */
+  protected <T> Iterator<ValueAssignment> lazyIterator(
+      Iterator<T> pEntries, Function<T, Collection<ValueAssignment>> pAssignments) {
+    return Iterators.concat(
+        Iterators.transform(
+            pEntries,
+            entry -> {
+              Preconditions.checkState(!isClosed(), "cannot use model after it is closed");
+              return pAssignments.apply(entry).iterator();
+            }));
+  }
+
   @Override
   public String toString() {
     return Joiner.on('\n').join(iterator());
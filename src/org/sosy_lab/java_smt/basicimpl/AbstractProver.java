@@ -11,6 +11,12 @@ package org.sosy_lab.java_smt.basicimpl;
 import com.google.common.base.Preconditions;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.ShutdownNotifier.ShutdownRequestListener;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment;
 import org.sosy_lab.java_smt.api.Evaluator;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
@@ -25,9 +31,29 @@ public abstract class AbstractProver<T> implements BasicProverEnvironment<T> {
 
   private final Set<Evaluator> evaluators = new LinkedHashSet<>();
 
+  /**
+   * The shutdown notifier of this prover. It is triggered by shutdown requests for the whole
+   * context, and additionally by cancelling an asynchronous check of this prover. Solvers should
+   * use this notifier (and not the one of the context) for interrupting a check.
+   */
+  protected final ShutdownNotifier shutdownNotifier;
+
+  private final ShutdownManager proverShutdownManager;
+  private final ShutdownNotifier contextShutdownNotifier;
+  private final ShutdownRequestListener contextShutdownListener;
+
   private static final String TEMPLATE = "Please set the prover option %s.";
 
-  protected AbstractProver(Set<ProverOptions> pOptions) {
+  protected AbstractProver(Set<ProverOptions> pOptions, ShutdownNotifier pShutdownNotifier) {
+    proverShutdownManager = ShutdownManager.create();
+    shutdownNotifier = proverShutdownManager.getNotifier();
+    contextShutdownNotifier = pShutdownNotifier;
+    contextShutdownListener =
+        reason ->
+            proverShutdownManager.requestShutdown(
+                reason == null ? "solver context was shut down" : reason);
+    contextShutdownNotifier.registerAndCheckImmediately(contextShutdownListener);
+
     generateModels = pOptions.contains(ProverOptions.GENERATE_MODELS);
     generateAllSat = pOptions.contains(ProverOptions.GENERATE_ALL_SAT);
     generateUnsatCores = pOptions.contains(ProverOptions.GENERATE_UNSAT_CORE);
@@ -77,8 +103,27 @@ public abstract class AbstractProver<T> implements BasicProverEnvironment<T> {
     evaluators.clear();
   }
 
+  /**
+   * Run {@link #isUnsat()} on the given executor. Cancelling the returned future requests a
+   * shutdown of this prover, which interrupts the solver if it is still running.
+   */
+  @Override
+  public CompletableFuture<Boolean> isUnsatAsync(Executor pExecutor) {
+    CompletableFuture<Boolean> result = BasicProverEnvironment.super.isUnsatAsync(pExecutor);
+    // cancelling a CompletableFuture does not reach the running task, so we interrupt the solver
+    CompletableFuture<?> unused =
+        result.whenComplete(
+            (unsat, e) -> {
+              if (e instanceof CancellationException) {
+                proverShutdownManager.requestShutdown("satisfiability check was cancelled");
+              }
+            });
+    return result;
+  }
+
   @Override
   public void close() {
     closeAllEvaluators();
+    contextShutdownNotifier.unregister(contextShutdownListener);
   }
 }
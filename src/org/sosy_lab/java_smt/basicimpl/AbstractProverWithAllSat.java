@@ -28,7 +28,6 @@ import org.sosy_lab.java_smt.api.SolverException;
  */
 public abstract class AbstractProverWithAllSat<T> extends AbstractProver<T> {
 
-  protected final ShutdownNotifier shutdownNotifier;
   private final BooleanFormulaManager bmgr;
 
   protected boolean closed;
@@ -37,9 +36,8 @@ public abstract class AbstractProverWithAllSat<T> extends AbstractProver<T> {
       Set<ProverOptions> pOptions,
       BooleanFormulaManager pBmgr,
       ShutdownNotifier pShutdownNotifier) {
-    super(pOptions);
+    super(pOptions, pShutdownNotifier);
     bmgr = pBmgr;
-    shutdownNotifier = pShutdownNotifier;
   }
 
   @Override
@@ -56,9 +54,12 @@ public abstract class AbstractProverWithAllSat<T> extends AbstractProver<T> {
       // fallback to direct SAT/UNSAT-based computation of ALLSAT
       iterateOverAllPredicateCombinations(callback, importantPredicates, new ArrayDeque<>());
       // TODO should we completely switch to the second method?
+    } finally {
+      // the callback might abort the query with an exception, e.g., when computing models in a
+      // pipeline, thus we always restore the stack, also on each level of the decision tree
+      pop();
     }
 
-    pop();
     return callback.getResult();
   }
 
@@ -130,19 +131,25 @@ public abstract class AbstractProverWithAllSat<T> extends AbstractProver<T> {
       final BooleanFormula predicate = predicates.get(0);
       valuesOfModel.push(predicate);
       push(predicate);
-      iterateOverAllPredicateCombinations(
-          callback, predicates.subList(1, predicates.size()), valuesOfModel);
-      pop();
-      valuesOfModel.pop();
+      try {
+        iterateOverAllPredicateCombinations(
+            callback, predicates.subList(1, predicates.size()), valuesOfModel);
+      } finally {
+        pop();
+        valuesOfModel.pop();
+      }
 
       // negated predicate
       final BooleanFormula notPredicate = bmgr.not(predicates.get(0));
       valuesOfModel.push(notPredicate);
       push(notPredicate);
-      iterateOverAllPredicateCombinations(
-          callback, predicates.subList(1, predicates.size()), valuesOfModel);
-      pop();
-      valuesOfModel.pop();
+      try {
+        iterateOverAllPredicateCombinations(
+            callback, predicates.subList(1, predicates.size()), valuesOfModel);
+      } finally {
+        pop();
+        valuesOfModel.pop();
+      }
     }
   }
 
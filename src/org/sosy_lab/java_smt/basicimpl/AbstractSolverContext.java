@@ -18,6 +18,7 @@ import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
 import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverPool;
 import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.basicimpl.withAssumptionsWrapper.InterpolatingProverWithAssumptionsWrapper;
 import org.sosy_lab.java_smt.basicimpl.withAssumptionsWrapper.ProverWithAssumptionsWrapper;
@@ -25,6 +26,7 @@ import org.sosy_lab.java_smt.basicimpl.withAssumptionsWrapper.ProverWithAssumpti
 public abstract class AbstractSolverContext implements SolverContext {
 
   private final FormulaManager fmgr;
+  private final ProverPools proverPools = new ProverPools();
 
   protected AbstractSolverContext(FormulaManager fmgr) {
     this.fmgr = fmgr;
@@ -75,6 +77,19 @@ public abstract class AbstractSolverContext implements SolverContext {
   protected abstract OptimizationProverEnvironment newOptimizationProverEnvironment0(
       Set<ProverOptions> pSet);
 
+  @Override
+  public final ProverPool newProverPool(int maxIdleProvers) {
+    return proverPools.newProverPool(this, maxIdleProvers);
+  }
+
+  /**
+   * Close all prover pools of this context. Solvers have to call this method in {@link #close()},
+   * before the solver itself is released.
+   */
+  protected final void closeProverPools() {
+    proverPools.close();
+  }
+
   /**
    * Whether the solver supports solving under some given assumptions (with all corresponding
    * features) by itself, i.e., whether {@link
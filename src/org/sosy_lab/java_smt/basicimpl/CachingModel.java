@@ -8,9 +8,14 @@
 
 package org.sosy_lab.java_smt.basicimpl;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -39,6 +44,24 @@ public class CachingModel implements Model {
     return modelAssignments;
   }
 
+  @Override
+  public Iterator<ValueAssignment> iterator() {
+    // do not build the list here, the delegate might iterate lazily
+    ImmutableList<ValueAssignment> assignments = modelAssignments;
+    return assignments == null ? delegate.iterator() : assignments.iterator();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getAssignments(String pName) {
+    ImmutableList<ValueAssignment> assignments = modelAssignments;
+    if (assignments == null) {
+      return delegate.getAssignments(pName);
+    }
+    return assignments.stream()
+        .filter(va -> pName.equals(va.getName()))
+        .collect(toImmutableList());
+  }
+
   @Override
   public void close() {
     delegate.close();
@@ -78,4 +101,9 @@ public class CachingModel implements Model {
   public @Nullable String evaluate(StringFormula formula) {
     return delegate.evaluate(formula);
   }
+
+  @Override
+  public <T extends Formula> ImmutableMap<T, Object> evaluateAll(Collection<T> formulas) {
+    return delegate.evaluateAll(formulas);
+  }
 }
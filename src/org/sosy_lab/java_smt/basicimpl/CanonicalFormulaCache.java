@@ -0,0 +1,76 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import com.google.common.collect.MapMaker;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.sosy_lab.java_smt.api.Formula;
+
+/**
+ * Maps each native term of a solver to at most one Java wrapper, such that equal formulas are
+ * usually identical objects.
+ *
+ * <p>This only makes sense for solvers that use hash-consing for their terms, such that equal terms
+ * have the same native id. The wrappers are only referenced weakly, thus a wrapper (and its native
+ * term) can still be collected as soon as the user no longer references it. Afterwards, a new
+ * wrapper is created for the same term.
+ *
+ * <p>A term can be wrapped with different Java types, e.g., an integer term can be used as
+ * rational formula. Only the latest wrapper of a term is cached, thus identical formulas are not
+ * guaranteed, and {@link Object#equals} is still required to compare formulas.
+ *
+ * @param <TKey> the type of the native term ids
+ */
+@SuppressWarnings("ClassTypeParameterName")
+public final class CanonicalFormulaCache<TKey> {
+
+  private final ConcurrentMap<TKey, Formula> wrappers = new MapMaker().weakValues().makeMap();
+
+  private long hits = 0;
+  private long misses = 0;
+
+  /**
+   * Return the cached wrapper for the given native term if it matches the expected kind of
+   * formula, or create, cache, and return a new wrapper otherwise.
+   *
+   * @param pKey the native id of the term
+   * @param pMatches whether a cached wrapper has the expected Java type
+   * @param pWrapper creates a new wrapper for the term
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Formula> T intern(
+      TKey pKey, Predicate<? super Formula> pMatches, Supplier<T> pWrapper) {
+    Formula cached = wrappers.get(pKey);
+    if (cached != null && pMatches.test(cached)) {
+      hits++;
+      return (T) cached;
+    }
+    misses++;
+    T wrapper = pWrapper.get();
+    wrappers.put(pKey, wrapper);
+    return wrapper;
+  }
+
+  /** The number of requests that returned a cached wrapper. */
+  public long getHits() {
+    return hits;
+  }
+
+  /** The number of requests that created a new wrapper. */
+  public long getMisses() {
+    return misses;
+  }
+
+  /** The number of cached wrappers, including those that are already collected. */
+  public int size() {
+    return wrappers.size();
+  }
+}
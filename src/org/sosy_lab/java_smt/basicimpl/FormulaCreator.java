@@ -18,8 +18,8 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -288,7 +288,8 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
       FormulaVisitor<TraversalProcess> pFormulaVisitor,
       Formula pF,
       Predicate<Formula> shouldProcess) {
-    RecursiveFormulaVisitorImpl recVisitor = new RecursiveFormulaVisitorImpl(pFormulaVisitor);
+    RecursiveFormulaVisitorImpl recVisitor =
+        new RecursiveFormulaVisitorImpl(pFormulaVisitor, newSeenFilter());
     recVisitor.addToQueue(pF);
     while (!recVisitor.isQueueEmpty()) {
       Formula tt = recVisitor.pop();
@@ -301,6 +302,40 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
     }
   }
 
+  /**
+   * Whether this solver provides unique identifiers for its terms via {@link
+   * #getNativeTermId(Formula)}.
+   */
+  protected boolean hasNativeTermIds() {
+    return false;
+  }
+
+  /**
+   * Return a unique identifier for the term of the given formula, e.g., a pointer into the
+   * hash-consed term table of the solver or an integer id. Equal formulas must have equal
+   * identifiers and different formulas must have different identifiers. The identifier should be
+   * available without any native call or boxing, because it is used for traversing large formulas.
+   *
+   * <p>Only called if {@link #hasNativeTermIds()} returns true.
+   */
+  protected long getNativeTermId(Formula pFormula) {
+    throw new UnsupportedOperationException("solver does not provide native term ids");
+  }
+
+  /**
+   * Create a filter that returns true exactly for the first occurrence of each formula. Solvers
+   * with native term identifiers use a primitive set, all others a set of formulas.
+   */
+  private Predicate<Formula> newSeenFilter() {
+    if (hasNativeTermIds()) {
+      NativeIdSet seen = new NativeIdSet();
+      return f -> seen.add(getNativeTermId(f));
+    } else {
+      Set<Formula> seen = new HashSet<>();
+      return seen::add;
+    }
+  }
+
   public <T extends Formula> T transformRecursively(
       FormulaVisitor<? extends Formula> pFormulaVisitor, T pF) {
     return transformRecursively(pFormulaVisitor, pF, t -> true);
@@ -308,8 +343,21 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
 
   public <T extends Formula> T transformRecursively(
       FormulaVisitor<? extends Formula> pFormulaVisitor, T pF, Predicate<Object> shouldProcess) {
+    return transformRecursively(pFormulaVisitor, pF, shouldProcess, null);
+  }
+
+  /**
+   * Transform the formula recursively. If a cache of previous results of the same visitor is given,
+   * subformulas contained in it are not processed again, and all new results are added to it.
+   */
+  <T extends Formula> T transformRecursively(
+      FormulaVisitor<? extends Formula> pFormulaVisitor,
+      T pF,
+      Predicate<Object> shouldProcess,
+      @Nullable Map<Formula, Formula> pPreviousResults) {
 
     final Deque<Formula> toProcess = new ArrayDeque<>();
+    // The previous results are only extended after a complete transformation.
     Map<Formula, Formula> pCache = new HashMap<>();
     FormulaTransformationVisitorImpl recVisitor =
         new FormulaTransformationVisitorImpl(pFormulaVisitor, toProcess, pCache);
@@ -324,12 +372,18 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
         continue;
       }
 
-      if (shouldProcess.test(tt)) {
+      Formula previous = pPreviousResults == null ? null : pPreviousResults.get(tt);
+      if (previous != null) {
+        pCache.put(tt, previous);
+      } else if (shouldProcess.test(tt)) {
         visit(tt, recVisitor);
       } else {
         pCache.put(tt, tt);
       }
     }
+    if (pPreviousResults != null) {
+      pPreviousResults.putAll(pCache);
+    }
     @SuppressWarnings("unchecked")
     T out = (T) pCache.get(pF);
     return out;
@@ -367,7 +421,7 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
       final boolean extractUF,
       final BiConsumer<String, Formula> pConsumer) {
     visitRecursively(
-        new VariableAndUFExtractor(extractUF, pConsumer, ImmutableSet.of(), new LinkedHashSet<>()),
+        new VariableAndUFExtractor(extractUF, pConsumer, ImmutableSet.of(), newSeenFilter()),
         pFormula);
   }
 
@@ -379,19 +433,19 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
 
     /**
      * let's collect all visited symbols here, to avoid redundant visitation of symbols in nested
-     * quantified formulas.
+     * quantified formulas. Returns true for the first visit of a symbol.
      */
-    private final Set<Formula> alreadyVisited;
+    private final Predicate<Formula> isFirstVisit;
 
     VariableAndUFExtractor(
         boolean pExtractUF,
         BiConsumer<String, Formula> pConsumer,
         Set<Formula> pBoundVariablesInContext,
-        Set<Formula> pAlreadyVisited) {
+        Predicate<Formula> pIsFirstVisit) {
       extractUF = pExtractUF;
       consumer = pConsumer;
       boundVariablesInContext = pBoundVariablesInContext;
-      alreadyVisited = pAlreadyVisited;
+      isFirstVisit = pIsFirstVisit;
     }
 
     @Override
@@ -406,7 +460,7 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
       if (!boundVariablesInContext.contains(f) // TODO can UFs be bounded?
           && functionDeclaration.getKind() == FunctionDeclarationKind.UF
           && extractUF) {
-        if (alreadyVisited.add(f)) {
+        if (isFirstVisit.test(f)) {
           consumer.accept(functionDeclaration.getName(), f);
         }
       }
@@ -419,7 +473,7 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
       // If we are inside a quantified formula, bound variables appear to be free,
       // but they are actually bound by the surrounding context.
       if (!boundVariablesInContext.contains(f)) {
-        if (alreadyVisited.add(f)) {
+        if (isFirstVisit.test(f)) {
           consumer.accept(name, f);
         }
       }
@@ -437,7 +491,7 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
               extractUF,
               consumer,
               Sets.union(boundVariablesInContext, ImmutableSet.copyOf(boundVariables)),
-              alreadyVisited),
+              isFirstVisit),
           body);
 
       // Afterwards, we skip the already finished body-formula.
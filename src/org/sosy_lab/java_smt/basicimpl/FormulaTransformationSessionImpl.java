@@ -0,0 +1,58 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaTransformationSession;
+import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+
+/**
+ * Implementation of {@link FormulaTransformationSession} that keeps the results in a cache until the
+ * session is closed. The cache is only updated after a complete transformation, thus a failing
+ * visitor does not leave partial results behind.
+ *
+ * <p>The cache is bounded and evicts results that were not used recently. An evicted subformula is
+ * simply transformed again when it is needed, which yields the same result because the visitor is
+ * free of side effects. Weak keys are not an option, because formulas are compared by equality and
+ * a new formula object is created for each visit of a term.
+ */
+final class FormulaTransformationSessionImpl implements FormulaTransformationSession {
+
+  /** The maximum number of transformed subformulas kept by one session. */
+  private static final int MAXIMUM_SIZE = 100_000;
+
+  private final FormulaCreator<?, ?, ?, ?> formulaCreator;
+  private final FormulaVisitor<? extends Formula> visitor;
+  private final Cache<Formula, Formula> results =
+      CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+  private boolean closed = false;
+
+  FormulaTransformationSessionImpl(
+      FormulaCreator<?, ?, ?, ?> pFormulaCreator, FormulaVisitor<? extends Formula> pVisitor) {
+    formulaCreator = checkNotNull(pFormulaCreator);
+    visitor = checkNotNull(pVisitor);
+  }
+
+  @Override
+  public <T extends Formula> T transform(T f) {
+    checkState(!closed, "transformation session is already closed");
+    return formulaCreator.transformRecursively(visitor, f, t -> true, results.asMap());
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    results.invalidateAll();
+  }
+}
@@ -0,0 +1,439 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.ArrayFormula;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BitvectorFormulaManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.BitvectorType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.NumeralFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormulaManager;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.StringFormula;
+import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+
+/**
+ * Translates formulas from one context into another one by visiting the formula in the source
+ * context and rebuilding it with the typed formula managers of the target context. Each subformula
+ * is translated only once, even if it is shared in the formula DAG.
+ *
+ * <p>Operators without a counterpart in the API of the formula managers, e.g., quantifiers or
+ * floating-point operations, lead to an {@link UnsupportedOperationException}. The caller can then
+ * fall back to a translation via SMT-LIB.
+ */
+final class FormulaTranslator {
+
+  /** Operators that are translated with all their operands, if there are more than two. */
+  private static final ImmutableSet<FunctionDeclarationKind> VARIADIC_KINDS =
+      Sets.immutableEnumSet(
+          FunctionDeclarationKind.UF,
+          FunctionDeclarationKind.AND,
+          FunctionDeclarationKind.OR,
+          FunctionDeclarationKind.ITE,
+          FunctionDeclarationKind.EQ,
+          FunctionDeclarationKind.BV_EQ,
+          FunctionDeclarationKind.ADD,
+          FunctionDeclarationKind.SUB,
+          FunctionDeclarationKind.MUL,
+          FunctionDeclarationKind.DIV,
+          FunctionDeclarationKind.DISTINCT,
+          FunctionDeclarationKind.BV_ADD,
+          FunctionDeclarationKind.BV_SUB,
+          FunctionDeclarationKind.BV_MUL,
+          FunctionDeclarationKind.BV_AND,
+          FunctionDeclarationKind.BV_OR,
+          FunctionDeclarationKind.BV_XOR,
+          FunctionDeclarationKind.BV_CONCAT,
+          FunctionDeclarationKind.STORE);
+
+  private final FormulaManager target;
+  private final FormulaManager source;
+  private final BooleanFormulaManager bmgr;
+
+  /** Translated subformulas, with source formulas as keys and target formulas as values. */
+  private final Map<Formula, Formula> cache = new HashMap<>();
+
+  FormulaTranslator(FormulaManager pTarget, FormulaManager pSource) {
+    target = checkNotNull(pTarget);
+    source = checkNotNull(pSource);
+    bmgr = target.getBooleanFormulaManager();
+  }
+
+  /**
+   * Translate the formula from the source context into the target context.
+   *
+   * @throws UnsupportedOperationException if the formula contains an unsupported operator.
+   */
+  <T extends Formula> T translate(T pFormula) {
+    // explicit stack instead of recursion, formulas can be deeply nested
+    Deque<Formula> waitlist = new ArrayDeque<>();
+    TranslationVisitor visitor = new TranslationVisitor(waitlist);
+    waitlist.push(pFormula);
+    while (!waitlist.isEmpty()) {
+      Formula f = waitlist.peek();
+      if (cache.containsKey(f)) {
+        waitlist.pop();
+        continue;
+      }
+      Formula result = source.visit(f, visitor);
+      if (result != null) {
+        cache.put(f, result);
+        waitlist.pop();
+      }
+    }
+    @SuppressWarnings("unchecked")
+    T result = (T) checkNotNull(cache.get(pFormula));
+    return result;
+  }
+
+  /** Visitor that returns null if some operands are not yet translated and pushes them instead. */
+  private final class TranslationVisitor implements FormulaVisitor<@Nullable Formula> {
+
+    private final Deque<Formula> waitlist;
+
+    TranslationVisitor(Deque<Formula> pWaitlist) {
+      waitlist = pWaitlist;
+    }
+
+    @Override
+    public Formula visitFreeVariable(Formula f, String name) {
+      return target.makeVariable(source.getFormulaType(f), name);
+    }
+
+    @Override
+    public Formula visitBoundVariable(Formula f, int deBruijnIdx) {
+      throw new UnsupportedOperationException("cannot translate bound variable " + f);
+    }
+
+    @Override
+    public Formula visitConstant(Formula f, Object value) {
+      FormulaType<?> type = source.getFormulaType(f);
+      if (type.isBooleanType() && value instanceof Boolean) {
+        return bmgr.makeBoolean((Boolean) value);
+      } else if (type.isNumeralType()) {
+        return makeNumber(type, value);
+      } else if (type.isBitvectorType() && value instanceof BigInteger) {
+        return target
+            .getBitvectorFormulaManager()
+            .makeBitvector(((BitvectorType) type).getSize(), (BigInteger) value);
+      } else if (type.isStringType() && value instanceof String) {
+        return target.getStringFormulaManager().makeString((String) value);
+      }
+      throw new UnsupportedOperationException("cannot translate constant " + f);
+    }
+
+    @Override
+    public @Nullable Formula visitFunction(
+        Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+      List<Formula> newArgs = new ArrayList<>(args.size());
+      boolean allArgumentsTranslated = true;
+      for (Formula arg : args) {
+        Formula newArg = cache.get(arg);
+        if (newArg == null) {
+          waitlist.push(arg);
+          allArgumentsTranslated = false;
+        } else {
+          newArgs.add(newArg);
+        }
+      }
+      if (!allArgumentsTranslated) {
+        return null;
+      }
+      return translateFunction(f, newArgs, functionDeclaration);
+    }
+
+    @Override
+    public Formula visitQuantifier(
+        BooleanFormula f,
+        Quantifier quantifier,
+        List<Formula> boundVariables,
+        BooleanFormula body) {
+      throw new UnsupportedOperationException("cannot translate quantified formula " + f);
+    }
+  }
+
+  private NumeralFormula makeNumber(FormulaType<?> type, Object value) {
+    NumeralFormulaManager<?, ?> nmgr =
+        type.isIntegerType()
+            ? target.getIntegerFormulaManager()
+            : target.getRationalFormulaManager();
+    if (value instanceof BigInteger) {
+      return nmgr.makeNumber((BigInteger) value);
+    } else if (value instanceof Rational) {
+      return nmgr.makeNumber((Rational) value);
+    } else if (value instanceof BigDecimal) {
+      return nmgr.makeNumber((BigDecimal) value);
+    } else if (value instanceof Long || value instanceof Integer) {
+      return nmgr.makeNumber(((Number) value).longValue());
+    }
+    throw new UnsupportedOperationException("cannot translate numeral " + value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Formula translateFunction(
+      Formula f, List<Formula> args, FunctionDeclaration<?> declaration) {
+    if (args.size() > 2 && !VARIADIC_KINDS.contains(declaration.getKind())) {
+      // e.g., chained comparisons, the binary operations below would drop the other operands
+      throw new UnsupportedOperationException(
+          "cannot translate operator "
+              + declaration.getKind()
+              + " with "
+              + args.size()
+              + " operands of formula "
+              + f);
+    }
+    switch (declaration.getKind()) {
+      case UF:
+        return target
+            .getUFManager()
+            .declareAndCallUF(declaration.getName(), declaration.getType(), args);
+
+        // Boolean logic
+      case AND:
+        return bmgr.and(castList(args, BooleanFormula.class));
+      case OR:
+        return bmgr.or(castList(args, BooleanFormula.class));
+      case NOT:
+        return bmgr.not((BooleanFormula) args.get(0));
+      case IMPLIES:
+        return bmgr.implication((BooleanFormula) args.get(0), (BooleanFormula) args.get(1));
+      case XOR:
+        return bmgr.xor((BooleanFormula) args.get(0), (BooleanFormula) args.get(1));
+      case IFF:
+        return bmgr.equivalence((BooleanFormula) args.get(0), (BooleanFormula) args.get(1));
+      case ITE:
+        return bmgr.ifThenElse((BooleanFormula) args.get(0), args.get(1), args.get(2));
+      case EQ:
+      case BV_EQ:
+        return makeEqualities(args);
+
+        // Integer and rational arithmetic
+      case ADD:
+        return numeralManager(args).sum(castList(args, NumeralFormula.class));
+      case SUB:
+        if (args.size() == 1) {
+          return numeralManager(args).negate(num(args, 0));
+        }
+        // some solvers, e.g., Z3 and CVC5, represent (- a b c) as one application
+        return foldNumeral(args, (a, b) -> numeralManager(args).subtract(a, b));
+      case MUL:
+        return foldNumeral(args, (a, b) -> numeralManager(args).multiply(a, b));
+      case DIV:
+        return foldNumeral(args, (a, b) -> numeralManager(args).divide(a, b));
+      case MODULO:
+        return target
+            .getIntegerFormulaManager()
+            .modulo((IntegerFormula) args.get(0), (IntegerFormula) args.get(1));
+      case UMINUS:
+        return numeralManager(args).negate(num(args, 0));
+      case LT:
+        return numeralManager(args).lessThan(num(args, 0), num(args, 1));
+      case LTE:
+        return numeralManager(args).lessOrEquals(num(args, 0), num(args, 1));
+      case GT:
+        return numeralManager(args).greaterThan(num(args, 0), num(args, 1));
+      case GTE:
+        return numeralManager(args).greaterOrEquals(num(args, 0), num(args, 1));
+      case EQ_ZERO:
+        return numeralManager(args).equal(num(args, 0), makeZero(args));
+      case GTE_ZERO:
+        return numeralManager(args).greaterOrEquals(num(args, 0), makeZero(args));
+      case FLOOR:
+        return numeralManager(args).floor(num(args, 0));
+      case DISTINCT:
+        if (target.getFormulaType(args.get(0)).isNumeralType()) {
+          return numeralManager(args).distinct(castList(args, NumeralFormula.class));
+        }
+        break;
+
+        // Bitvectors
+      case BV_ADD:
+        return foldBitvector(args, (a, b) -> bvmgr().add(a, b));
+      case BV_SUB:
+        return foldBitvector(args, (a, b) -> bvmgr().subtract(a, b));
+      case BV_MUL:
+        return foldBitvector(args, (a, b) -> bvmgr().multiply(a, b));
+      case BV_NEG:
+        return bvmgr().negate(bv(args, 0));
+      case BV_NOT:
+        return bvmgr().not(bv(args, 0));
+      case BV_AND:
+        return foldBitvector(args, (a, b) -> bvmgr().and(a, b));
+      case BV_OR:
+        return foldBitvector(args, (a, b) -> bvmgr().or(a, b));
+      case BV_XOR:
+        return foldBitvector(args, (a, b) -> bvmgr().xor(a, b));
+      case BV_SDIV:
+        return bvmgr().divide(bv(args, 0), bv(args, 1), true);
+      case BV_UDIV:
+        return bvmgr().divide(bv(args, 0), bv(args, 1), false);
+      case BV_SREM:
+        return bvmgr().modulo(bv(args, 0), bv(args, 1), true);
+      case BV_UREM:
+        return bvmgr().modulo(bv(args, 0), bv(args, 1), false);
+      case BV_SLT:
+        return bvmgr().lessThan(bv(args, 0), bv(args, 1), true);
+      case BV_ULT:
+        return bvmgr().lessThan(bv(args, 0), bv(args, 1), false);
+      case BV_SLE:
+        return bvmgr().lessOrEquals(bv(args, 0), bv(args, 1), true);
+      case BV_ULE:
+        return bvmgr().lessOrEquals(bv(args, 0), bv(args, 1), false);
+      case BV_SGT:
+        return bvmgr().greaterThan(bv(args, 0), bv(args, 1), true);
+      case BV_UGT:
+        return bvmgr().greaterThan(bv(args, 0), bv(args, 1), false);
+      case BV_SGE:
+        return bvmgr().greaterOrEquals(bv(args, 0), bv(args, 1), true);
+      case BV_UGE:
+        return bvmgr().greaterOrEquals(bv(args, 0), bv(args, 1), false);
+      case BV_SHL:
+        return bvmgr().shiftLeft(bv(args, 0), bv(args, 1));
+      case BV_LSHR:
+        return bvmgr().shiftRight(bv(args, 0), bv(args, 1), false);
+      case BV_ASHR:
+        return bvmgr().shiftRight(bv(args, 0), bv(args, 1), true);
+      case BV_CONCAT:
+        return foldBitvector(args, (a, b) -> bvmgr().concat(a, b));
+      case BV_SIGN_EXTENSION:
+        return bvmgr().extend(bv(args, 0), getExtension(f, args), true);
+      case BV_ZERO_EXTENSION:
+        return bvmgr().extend(bv(args, 0), getExtension(f, args), false);
+
+        // Arrays
+      case SELECT:
+        return target
+            .getArrayFormulaManager()
+            .select((ArrayFormula<Formula, Formula>) args.get(0), args.get(1));
+      case STORE:
+        return target
+            .getArrayFormulaManager()
+            .store((ArrayFormula<Formula, Formula>) args.get(0), args.get(1), args.get(2));
+
+      default:
+        break;
+    }
+    throw new UnsupportedOperationException(
+        "cannot translate operator " + declaration.getKind() + " of formula " + f);
+  }
+
+  /** Equality of two or more operands of any type, as chain of binary equalities. */
+  private BooleanFormula makeEqualities(List<Formula> args) {
+    List<BooleanFormula> equalities = new ArrayList<>();
+    for (int i = 0; i + 1 < args.size(); i++) {
+      equalities.add(makeEquality(args.get(i), args.get(i + 1)));
+    }
+    return bmgr.and(equalities);
+  }
+
+  @SuppressWarnings("unchecked")
+  private BooleanFormula makeEquality(Formula a, Formula b) {
+    FormulaType<?> type = target.getFormulaType(a);
+    if (type.isBooleanType()) {
+      return bmgr.equivalence((BooleanFormula) a, (BooleanFormula) b);
+    } else if (type.isNumeralType()) {
+      return numeralManager(ImmutableList.of(a, b)).equal((NumeralFormula) a, (NumeralFormula) b);
+    } else if (type.isBitvectorType()) {
+      return bvmgr().equal((BitvectorFormula) a, (BitvectorFormula) b);
+    } else if (type.isArrayType()) {
+      return target
+          .getArrayFormulaManager()
+          .equivalence((ArrayFormula<Formula, Formula>) a, (ArrayFormula<Formula, Formula>) b);
+    } else if (type.isStringType()) {
+      return target.getStringFormulaManager().equal((StringFormula) a, (StringFormula) b);
+    }
+    throw new UnsupportedOperationException("cannot translate equality of type " + type);
+  }
+
+  /** Use rational arithmetic as soon as one operand is rational. */
+  @SuppressWarnings("unchecked")
+  private NumeralFormulaManager<NumeralFormula, NumeralFormula> numeralManager(
+      List<Formula> args) {
+    for (Formula arg : args) {
+      if (!target.getFormulaType(arg).isIntegerType()) {
+        return (NumeralFormulaManager<NumeralFormula, NumeralFormula>)
+            (NumeralFormulaManager<?, ?>) target.getRationalFormulaManager();
+      }
+    }
+    return (NumeralFormulaManager<NumeralFormula, NumeralFormula>)
+        (NumeralFormulaManager<?, ?>) target.getIntegerFormulaManager();
+  }
+
+  private NumeralFormula makeZero(List<Formula> args) {
+    return numeralManager(args).makeNumber(0);
+  }
+
+  private BitvectorFormulaManager bvmgr() {
+    return target.getBitvectorFormulaManager();
+  }
+
+  /** Number of bits added by the extension of the first operand to the result f. */
+  private int getExtension(Formula f, List<Formula> args) {
+    FormulaType<?> type = source.getFormulaType(f);
+    if (type instanceof BitvectorType) {
+      return ((BitvectorType) type).getSize() - bvmgr().getLength(bv(args, 0));
+    }
+    throw new UnsupportedOperationException("expected bitvector type instead of " + type);
+  }
+
+  private static NumeralFormula num(List<Formula> args, int index) {
+    return (NumeralFormula) args.get(index);
+  }
+
+  private static BitvectorFormula bv(List<Formula> args, int index) {
+    return (BitvectorFormula) args.get(index);
+  }
+
+  private static <T extends Formula> List<T> castList(List<Formula> args, Class<T> clazz) {
+    return Lists.transform(args, clazz::cast);
+  }
+
+  private static NumeralFormula foldNumeral(
+      List<Formula> args, BinaryOperator<NumeralFormula> op) {
+    NumeralFormula result = num(args, 0);
+    for (int i = 1; i < args.size(); i++) {
+      result = op.apply(result, num(args, i));
+    }
+    return result;
+  }
+
+  private static BitvectorFormula foldBitvector(
+      List<Formula> args, BinaryOperator<BitvectorFormula> op) {
+    BitvectorFormula result = bv(args, 0);
+    for (int i = 1; i < args.size(); i++) {
+      result = op.apply(result, bv(args, i));
+    }
+    return result;
+  }
+}
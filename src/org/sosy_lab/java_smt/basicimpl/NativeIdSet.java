@@ -0,0 +1,78 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+/**
+ * A set of native term identifiers (pointers or integer ids) based on open addressing with linear
+ * probing. In contrast to a {@code HashSet<Formula>}, this set neither boxes its elements nor
+ * calls {@link Object#equals} or {@link Object#hashCode} on formulas, which might be implemented
+ * via native calls.
+ *
+ * <p>The value {@code 0} is a valid element and stored separately, as it marks empty slots.
+ */
+final class NativeIdSet {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private long[] table = new long[INITIAL_CAPACITY];
+  private int size = 0;
+  private boolean containsZero = false;
+
+  /**
+   * Add the identifier to the set.
+   *
+   * @return whether the identifier was not yet contained in the set.
+   */
+  boolean add(long id) {
+    if (id == 0) {
+      if (containsZero) {
+        return false;
+      }
+      containsZero = true;
+      return true;
+    }
+    if (2 * (size + 1) > table.length) {
+      resize();
+    }
+    if (insert(table, id)) {
+      size++;
+      return true;
+    }
+    return false;
+  }
+
+  private static boolean insert(long[] pTable, long id) {
+    int mask = pTable.length - 1;
+    int i = mix(id) & mask;
+    while (pTable[i] != 0) {
+      if (pTable[i] == id) {
+        return false;
+      }
+      i = (i + 1) & mask;
+    }
+    pTable[i] = id;
+    return true;
+  }
+
+  private void resize() {
+    long[] newTable = new long[table.length * 2];
+    for (long id : table) {
+      if (id != 0) {
+        insert(newTable, id);
+      }
+    }
+    table = newTable;
+  }
+
+  /** Spread the bits of pointers, whose lowest bits are mostly zero due to alignment. */
+  private static int mix(long id) {
+    long h = id * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
@@ -0,0 +1,50 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+
+public class NativeIdSetTest {
+
+  @Test
+  public void zeroTest() {
+    NativeIdSet set = new NativeIdSet();
+    assertThat(set.add(0)).isTrue();
+    assertThat(set.add(0)).isFalse();
+    assertThat(set.add(1)).isTrue();
+    assertThat(set.add(0)).isFalse();
+  }
+
+  @Test
+  public void extremeIdsTest() {
+    NativeIdSet set = new NativeIdSet();
+    for (long id : new long[] {-1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 32}) {
+      assertThat(set.add(id)).isTrue();
+    }
+    for (long id : new long[] {-1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 32}) {
+      assertThat(set.add(id)).isFalse();
+    }
+  }
+
+  @Test
+  public void collisionAndGrowthTest() {
+    // aligned pointers only differ in their higher bits and collide in the small initial table,
+    // and the number of ids forces the table to grow several times
+    NativeIdSet set = new NativeIdSet();
+    for (long i = 1; i <= 100_000; i++) {
+      assertThat(set.add(i << 12)).isTrue();
+    }
+    for (long i = 1; i <= 100_000; i++) {
+      assertThat(set.add(i << 12)).isFalse();
+      assertThat(set.add((i << 12) + 8)).isTrue();
+    }
+  }
+}
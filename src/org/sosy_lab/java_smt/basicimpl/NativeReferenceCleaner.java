@@ -0,0 +1,179 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.common.time.Timer;
+
+/**
+ * Releases the native terms of a solver when their Java wrappers are no longer reachable.
+ *
+ * <p>A solver registers each new wrapper together with the native term it owns a reference for.
+ * When the garbage collector finds a wrapper unreachable, its phantom reference is enqueued. By
+ * default, the queue is drained whenever a new wrapper is registered, such that there is no
+ * additional thread, and all terms found in the queue are released with one call to the release
+ * function. Alternatively, {@link #startCleanupThread} moves the draining and releasing into a
+ * daemon thread, which keeps the latency of creating formulas predictable, but requires that the
+ * release function can be called concurrently to other operations of the solver. The terms of
+ * wrappers that are still reachable when the context is closed can be released with {@link
+ * #releaseAll()}.
+ *
+ * @param <TFormula> the type of the Java wrappers
+ * @param <TFormulaInfo> the type of the native terms
+ */
+@SuppressWarnings("ClassTypeParameterName")
+public final class NativeReferenceCleaner<TFormula, TFormulaInfo> {
+
+  private final ReferenceQueue<TFormula> referenceQueue = new ReferenceQueue<>();
+
+  private final Map<Reference<? extends TFormula>, TFormulaInfo> referenceMap =
+      new IdentityHashMap<>();
+
+  /** Releases a batch of native terms, e.g., by decreasing their reference counters. */
+  private final Consumer<List<TFormulaInfo>> releaseFunction;
+
+  private final Timer cleanupTimer = new Timer();
+
+  private long releasedTerms = 0;
+
+  private @Nullable Thread cleanupThread = null;
+
+  public NativeReferenceCleaner(Consumer<List<TFormulaInfo>> pReleaseFunction) {
+    releaseFunction = checkNotNull(pReleaseFunction);
+  }
+
+  /**
+   * Start a daemon thread that releases the native terms of collected wrappers as soon as the
+   * garbage collector enqueues them. Afterwards, registering a wrapper no longer cleans up.
+   */
+  public void startCleanupThread(String pName) {
+    checkState(cleanupThread == null, "cleanup thread is already running");
+    Thread thread = new Thread(this::runCleanupThread, pName);
+    thread.setDaemon(true);
+    cleanupThread = thread;
+    thread.start();
+  }
+
+  private void runCleanupThread() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        // block until the garbage collector finds an unreachable wrapper
+        release(referenceQueue.remove());
+      }
+    } catch (InterruptedException e) {
+      // the context was closed, just stop
+    }
+  }
+
+  /**
+   * Track the given wrapper and release the native term as soon as the wrapper is no longer
+   * reachable. Before that, the native terms of already collected wrappers are released, unless a
+   * cleanup thread is running.
+   *
+   * @return the given wrapper, for convenience
+   */
+  public <T extends TFormula> T register(T pWrapper, TFormulaInfo pTerm) {
+    cleanup();
+    PhantomReference<T> ref = new PhantomReference<>(pWrapper, referenceQueue);
+    synchronized (this) {
+      referenceMap.put(ref, pTerm);
+    }
+    return pWrapper;
+  }
+
+  /**
+   * Release the native terms of all wrappers that were collected since the last cleanup. This is a
+   * no-op if a cleanup thread is running.
+   */
+  public void cleanup() {
+    if (cleanupThread != null) {
+      return;
+    }
+    Reference<? extends TFormula> ref = referenceQueue.poll();
+    if (ref != null) {
+      release(ref);
+    }
+  }
+
+  /** Release the term of the given reference and of all further enqueued references at once. */
+  private void release(Reference<? extends TFormula> pFirst) {
+    List<TFormulaInfo> terms = new ArrayList<>();
+    synchronized (this) {
+      cleanupTimer.start();
+      Reference<? extends TFormula> ref = pFirst;
+      do {
+        terms.add(referenceMap.remove(ref));
+      } while ((ref = referenceQueue.poll()) != null);
+      releasedTerms += terms.size();
+    }
+    try {
+      // release outside the lock, such that registering is not blocked
+      releaseFunction.accept(terms);
+    } finally {
+      synchronized (this) {
+        cleanupTimer.stop();
+      }
+    }
+  }
+
+  /**
+   * Stop the cleanup thread and release the native terms of all tracked wrappers, even if they are
+   * still reachable. This is intended for closing the solver context, afterwards no wrapper must
+   * be used.
+   */
+  public void releaseAll() {
+    Thread thread = cleanupThread;
+    if (thread != null) {
+      thread.interrupt();
+      Uninterruptibles.joinUninterruptibly(thread);
+      cleanupThread = null;
+    }
+    cleanup();
+    List<TFormulaInfo> terms;
+    synchronized (this) {
+      terms = new ArrayList<>(referenceMap.values());
+      referenceMap.clear();
+      releasedTerms += terms.size();
+    }
+    releaseFunction.accept(terms);
+  }
+
+  /** The number of native terms whose wrappers are still tracked. */
+  public synchronized int getTrackedTerms() {
+    return referenceMap.size();
+  }
+
+  /** The number of native terms that were released so far. */
+  public synchronized long getReleasedTerms() {
+    return releasedTerms;
+  }
+
+  /** The time spent for releasing native terms of collected wrappers. */
+  public synchronized TimeSpan getCleanupTime() {
+    return cleanupTimer.getSumTime();
+  }
+
+  /** The maximal time spent for releasing one batch of native terms. */
+  public synchronized TimeSpan getMaxCleanupTime() {
+    return cleanupTimer.getMaxTime();
+  }
+}
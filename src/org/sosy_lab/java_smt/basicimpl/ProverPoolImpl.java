@@ -0,0 +1,287 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Evaluator;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverPool;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Implementation of {@link ProverPool} for arbitrary solver contexts.
+ *
+ * <p>Each pooled prover has one additional level on its assertion stack, which is pushed when the
+ * prover is created. All constraints of a user are asserted on or above this level, such that the
+ * prover can be reset to an empty assertion stack by popping all levels and pushing a new base
+ * level.
+ *
+ * <p>Instances are created via {@link ProverPools}, which closes them together with the context.
+ */
+final class ProverPoolImpl implements ProverPool {
+
+  private final SolverContext context;
+  private final int maxIdleProvers;
+
+  /** Unused provers per set of options. Guarded by this. */
+  private final Map<Set<ProverOptions>, Deque<ProverEnvironment>> idleProvers = new HashMap<>();
+
+  private boolean closed = false;
+
+  // statistics, guarded by this
+  private int createdProvers = 0;
+  private int reusedProvers = 0;
+  private long creationTimeNanos = 0;
+
+  ProverPoolImpl(SolverContext pContext, int pMaxIdleProvers) {
+    checkArgument(pMaxIdleProvers >= 0, "number of idle provers must not be negative");
+    context = checkNotNull(pContext);
+    maxIdleProvers = pMaxIdleProvers;
+  }
+
+  @Override
+  public ProverEnvironment getProverEnvironment(ProverOptions... pOptions) {
+    Set<ProverOptions> options = Sets.immutableEnumSet(ImmutableList.copyOf(pOptions));
+    ProverEnvironment prover;
+    synchronized (this) {
+      checkState(!closed, "prover pool is closed");
+      Deque<ProverEnvironment> idle = idleProvers.get(options);
+      prover = idle == null ? null : idle.pollFirst();
+      if (prover != null) {
+        reusedProvers++;
+        return new PooledProverEnvironment(prover, options);
+      }
+    }
+
+    long start = System.nanoTime();
+    prover = context.newProverEnvironment(pOptions);
+    try {
+      prover.push();
+    } catch (InterruptedException e) {
+      prover.close();
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while creating a prover", e);
+    }
+    long duration = System.nanoTime() - start;
+    synchronized (this) {
+      createdProvers++;
+      creationTimeNanos += duration;
+    }
+    return new PooledProverEnvironment(prover, options);
+  }
+
+  /** Take back a prover that was reset to its base level, or close it if the pool is full. */
+  private void release(ProverEnvironment pProver, Set<ProverOptions> pOptions) {
+    synchronized (this) {
+      if (!closed) {
+        Deque<ProverEnvironment> idle =
+            idleProvers.computeIfAbsent(pOptions, k -> new ArrayDeque<>());
+        if (idle.size() < maxIdleProvers) {
+          idle.addFirst(pProver);
+          return;
+        }
+      }
+    }
+    pProver.close();
+  }
+
+  private synchronized boolean isClosed() {
+    return closed;
+  }
+
+  @Override
+  public synchronized ImmutableMap<String, String> getStatistics() {
+    int requests = createdProvers + reusedProvers;
+    return ImmutableMap.of(
+        "created provers",
+        Integer.toString(createdProvers),
+        "reused provers",
+        Integer.toString(reusedProvers),
+        "reuse rate",
+        requests == 0 ? "0" : String.format("%.3f", (double) reusedProvers / requests),
+        "prover creation time (ms)",
+        Long.toString(TimeUnit.NANOSECONDS.toMillis(creationTimeNanos)));
+  }
+
+  @Override
+  public void close() {
+    List<ProverEnvironment> toClose = new ArrayList<>();
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      for (Deque<ProverEnvironment> idle : idleProvers.values()) {
+        toClose.addAll(idle);
+      }
+      idleProvers.clear();
+    }
+    for (ProverEnvironment prover : toClose) {
+      prover.close();
+    }
+  }
+
+  /** A prover handed out by the pool, which returns the pooled prover when it is closed. */
+  private final class PooledProverEnvironment implements ProverEnvironment {
+
+    private final ProverEnvironment delegate;
+    private final Set<ProverOptions> options;
+    private boolean closed = false;
+
+    /** Whether an asynchronous check was cancelled, after which the prover can not be reused. */
+    private volatile boolean asyncCheckCancelled = false;
+
+    PooledProverEnvironment(ProverEnvironment pDelegate, Set<ProverOptions> pOptions) {
+      delegate = pDelegate;
+      options = pOptions;
+    }
+
+    private ProverEnvironment delegate() {
+      checkState(!closed, "prover was already closed and returned to the pool");
+      return delegate;
+    }
+
+    @Override
+    public void push() throws InterruptedException {
+      delegate().push();
+    }
+
+    @Override
+    public void pop() {
+      checkState(size() > 0, "cannot pop from empty stack");
+      delegate.pop();
+    }
+
+    @Override
+    public @Nullable Void addConstraint(BooleanFormula constraint) throws InterruptedException {
+      return delegate().addConstraint(constraint);
+    }
+
+    @Override
+    public int size() {
+      // hide the base level of the pooled prover
+      return delegate().size() - 1;
+    }
+
+    @Override
+    public boolean isUnsat() throws SolverException, InterruptedException {
+      return delegate().isUnsat();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isUnsatAsync(Executor executor) {
+      CompletableFuture<Boolean> result = delegate().isUnsatAsync(executor);
+      CompletableFuture<?> unused =
+          result.whenComplete(
+              (unsat, e) -> {
+                if (e instanceof CancellationException) {
+                  asyncCheckCancelled = true;
+                }
+              });
+      return result;
+    }
+
+    @Override
+    public boolean isUnsatWithAssumptions(Collection<BooleanFormula> assumptions)
+        throws SolverException, InterruptedException {
+      return delegate().isUnsatWithAssumptions(assumptions);
+    }
+
+    @Override
+    public Model getModel() throws SolverException {
+      return delegate().getModel();
+    }
+
+    @Override
+    public Evaluator getEvaluator() throws SolverException {
+      return delegate().getEvaluator();
+    }
+
+    @Override
+    public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+      return delegate().getModelAssignments();
+    }
+
+    @Override
+    public List<BooleanFormula> getUnsatCore() {
+      return delegate().getUnsatCore();
+    }
+
+    @Override
+    public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+        Collection<BooleanFormula> assumptions) throws SolverException, InterruptedException {
+      return delegate().unsatCoreOverAssumptions(assumptions);
+    }
+
+    @Override
+    public <R> R allSat(AllSatCallback<R> callback, List<BooleanFormula> important)
+        throws InterruptedException, SolverException {
+      return delegate().allSat(callback, important);
+    }
+
+    @Override
+    public ImmutableMap<String, String> getStatistics() {
+      return delegate().getStatistics();
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        if (isClosed() || asyncCheckCancelled) {
+          // the context might already be gone, thus we do not reset the prover, and a prover with
+          // a cancelled check can not be used for further checks
+          delegate.close();
+          return;
+        }
+        try {
+          // constraints asserted without push are stored on the base level, thus we also pop it
+          // and push a fresh base level for the next user
+          while (delegate.size() > 0) {
+            delegate.pop();
+          }
+          delegate.push();
+        } catch (InterruptedException e) {
+          delegate.close();
+          Thread.currentThread().interrupt();
+          return;
+        } catch (RuntimeException e) {
+          delegate.close();
+          throw e;
+        }
+        release(delegate, options);
+      }
+    }
+  }
+}
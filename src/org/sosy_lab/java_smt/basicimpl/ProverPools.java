@@ -0,0 +1,50 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.sosy_lab.java_smt.api.ProverPool;
+import org.sosy_lab.java_smt.api.SolverContext;
+
+/**
+ * The {@link ProverPool}s of one solver context. The context has to call {@link #close} before it
+ * releases its own resources, such that no pooled prover outlives the context.
+ */
+public final class ProverPools implements AutoCloseable {
+
+  /** All pools created for the context. Guarded by this. */
+  private final List<ProverPoolImpl> pools = new ArrayList<>();
+
+  private boolean closed = false;
+
+  /** Create a new pool for the given context, which is closed together with this instance. */
+  public synchronized ProverPool newProverPool(SolverContext pContext, int pMaxIdleProvers) {
+    checkState(!closed, "solver context is already closed");
+    ProverPoolImpl pool = new ProverPoolImpl(pContext, pMaxIdleProvers);
+    pools.add(pool);
+    return pool;
+  }
+
+  /** Close all pools, including their idle provers. */
+  @Override
+  public void close() {
+    List<ProverPoolImpl> toClose;
+    synchronized (this) {
+      closed = true;
+      toClose = new ArrayList<>(pools);
+      pools.clear();
+    }
+    for (ProverPoolImpl pool : toClose) {
+      pool.close();
+    }
+  }
+}
@@ -13,9 +13,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import com.google.common.collect.ImmutableList;
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.function.Predicate;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FunctionDeclaration;
@@ -26,17 +25,21 @@ import org.sosy_lab.java_smt.api.visitors.TraversalProcess.TraversalType;
 
 final class RecursiveFormulaVisitorImpl implements FormulaVisitor<TraversalProcess> {
 
-  private final Set<Formula> seen = new HashSet<>();
+  /** Marks a formula as seen and returns whether it was not seen before. */
+  private final Predicate<Formula> markSeen;
+
   private final Deque<Formula> toVisit = new ArrayDeque<>();
 
   private final FormulaVisitor<TraversalProcess> delegate;
 
-  RecursiveFormulaVisitorImpl(FormulaVisitor<TraversalProcess> pDelegate) {
+  RecursiveFormulaVisitorImpl(
+      FormulaVisitor<TraversalProcess> pDelegate, Predicate<Formula> pMarkSeen) {
     delegate = checkNotNull(pDelegate);
+    markSeen = checkNotNull(pMarkSeen);
   }
 
   void addToQueue(Formula f) {
-    if (seen.add(f)) {
+    if (markSeen.test(f)) {
       toVisit.push(f);
     }
   }
@@ -51,7 +54,11 @@ final class RecursiveFormulaVisitorImpl implements FormulaVisitor<TraversalProce
         addToQueue(f);
       }
     } else if (result.getType() == TraversalType.CUSTOM_TYPE) {
-      pOperands.stream().filter(result::contains).forEach(this::addToQueue);
+      for (Formula f : pOperands) {
+        if (result.contains(f)) {
+          addToQueue(f);
+        }
+      }
     }
   }
 
@@ -9,6 +9,11 @@
 package org.sosy_lab.java_smt.basicimpl;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
@@ -22,9 +27,17 @@ import org.sosy_lab.common.ShutdownNotifier.ShutdownRequestListener;
  */
 public final class ShutdownHook implements ShutdownRequestListener, AutoCloseable {
 
+  /** Repeats the interrupts of all hooks, such that the cancelling threads do not have to wait. */
+  private static final ScheduledExecutorService RETRY_EXECUTOR =
+      Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat("JavaSMT-shutdown-%d").build());
+
   private final ShutdownNotifier shutdownNotifier;
   private final Runnable interruptCall;
 
+  /** The repeated interrupts after a shutdown request, cancelled in #close. */
+  private volatile @Nullable ScheduledFuture<?> retries = null;
+
   public ShutdownHook(ShutdownNotifier pShutdownNotifier, Runnable pInterruptCall) {
     interruptCall = Preconditions.checkNotNull(pInterruptCall);
     shutdownNotifier = Preconditions.checkNotNull(pShutdownNotifier);
@@ -36,21 +49,40 @@ public final class ShutdownHook implements ShutdownRequestListener, AutoCloseabl
   // Due to a small delay in some solvers, interrupts have no effect when it is called too soon,
   // so we repeat cancellation until the solver's method returns and terminates.
   // In that case, we should call #close and terminate this hook.
+  // The listener runs in the thread that requests the shutdown, thus only the first interrupt is
+  // sent directly and the repetitions run in the background.
   @Override
   public void shutdownRequested(@Nullable String reasonUnused) {
-    while (isActiveHook.get()) { // flag is reset in #cancelHook
+    if (isActiveHook.get()) { // flag is reset in #close
       interruptCall.run();
-      try {
-        Thread.sleep(10); // let's wait a few steps
-      } catch (InterruptedException e) {
-        // ignore
+      retries =
+          RETRY_EXECUTOR.scheduleWithFixedDelay(
+              this::retryInterrupt, 10, 10, TimeUnit.MILLISECONDS); // let's wait a few steps
+      if (!isActiveHook.get()) {
+        cancelRetries(); // closed concurrently, maybe before the retries were stored
       }
     }
   }
 
+  private void retryInterrupt() {
+    if (isActiveHook.get()) {
+      interruptCall.run();
+    } else {
+      cancelRetries();
+    }
+  }
+
+  private void cancelRetries() {
+    ScheduledFuture<?> currentRetries = retries;
+    if (currentRetries != null) {
+      currentRetries.cancel(false);
+    }
+  }
+
   @Override
   public void close() {
     isActiveHook.set(false);
+    cancelRetries();
     shutdownNotifier.unregister(this);
   }
 }
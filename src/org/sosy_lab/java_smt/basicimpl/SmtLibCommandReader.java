@@ -0,0 +1,177 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Splits an SMT-LIB input into its top-level commands without reading the whole input. Only one
+ * command is kept in memory at a time.
+ *
+ * <p>The reader does not check the syntax of the commands, it only tracks parentheses, string
+ * literals, quoted symbols, and comments. Comments are dropped from the command text.
+ */
+final class SmtLibCommandReader {
+
+  /** One top-level command of an SMT-LIB input. */
+  static final class Command {
+
+    private final String text;
+    private final ImmutableList<String> symbols;
+
+    private Command(String pText, ImmutableList<String> pSymbols) {
+      text = pText;
+      symbols = pSymbols;
+    }
+
+    /** The text of the command, including the enclosing parentheses. */
+    String getText() {
+      return text;
+    }
+
+    /** All symbols in the command in their order of appearance, quoted symbols without bars. */
+    ImmutableList<String> getSymbols() {
+      return symbols;
+    }
+
+    /** The name of the command, e.g., "assert" or "declare-fun". */
+    String getName() {
+      return symbols.isEmpty() ? "" : symbols.get(0);
+    }
+  }
+
+  private final BufferedReader input;
+
+  SmtLibCommandReader(Reader pInput) {
+    checkNotNull(pInput);
+    input = pInput instanceof BufferedReader ? (BufferedReader) pInput : new BufferedReader(pInput);
+  }
+
+  /**
+   * Read the next command.
+   *
+   * @return the next command, or null if the input is exhausted.
+   * @throws IllegalArgumentException if the input is not a sequence of commands.
+   */
+  @Nullable Command next() throws IOException {
+    StringBuilder text = new StringBuilder();
+    ImmutableList.Builder<String> symbols = ImmutableList.builder();
+    StringBuilder token = new StringBuilder();
+    int depth = 0;
+
+    int c;
+    while ((c = input.read()) != -1) {
+      char ch = (char) c;
+      if (depth == 0 && Character.isWhitespace(ch)) {
+        continue;
+      }
+      if (ch == ';') {
+        addToken(token, symbols);
+        skipComment();
+        if (depth > 0) {
+          text.append(' ');
+        }
+        continue;
+      }
+      if (depth == 0 && ch != '(') {
+        throw new IllegalArgumentException(
+            "expected an SMT-LIB command, but found '" + ch + "' at top level");
+      }
+
+      text.append(ch);
+      switch (ch) {
+        case '(':
+          addToken(token, symbols);
+          depth++;
+          break;
+        case ')':
+          addToken(token, symbols);
+          depth--;
+          if (depth == 0) {
+            return new Command(text.toString(), symbols.build());
+          }
+          break;
+        case '"':
+          addToken(token, symbols);
+          readStringLiteral(text);
+          break;
+        case '|':
+          addToken(token, symbols);
+          symbols.add(readQuotedSymbol(text));
+          break;
+        default:
+          if (Character.isWhitespace(ch)) {
+            addToken(token, symbols);
+          } else {
+            token.append(ch);
+          }
+      }
+    }
+
+    if (depth > 0) {
+      throw new IllegalArgumentException("unexpected end of SMT-LIB input in unclosed command");
+    }
+    return null;
+  }
+
+  /** Add the token to the symbols, unless it is a literal or a keyword. */
+  private static void addToken(StringBuilder token, ImmutableList.Builder<String> symbols) {
+    if (token.length() > 0) {
+      char first = token.charAt(0);
+      if (!Character.isDigit(first) && first != '#' && first != ':') {
+        symbols.add(token.toString());
+      }
+      token.setLength(0);
+    }
+  }
+
+  private void skipComment() throws IOException {
+    int c;
+    while ((c = input.read()) != -1 && c != '\n' && c != '\r') {
+      // skip
+    }
+  }
+
+  /** Copy a string literal, where a doubled quote is an escaped quote. */
+  private void readStringLiteral(StringBuilder text) throws IOException {
+    int c;
+    while ((c = input.read()) != -1) {
+      text.append((char) c);
+      if (c == '"') {
+        input.mark(1);
+        if (input.read() == '"') {
+          text.append('"');
+        } else {
+          input.reset();
+          return;
+        }
+      }
+    }
+    throw new IllegalArgumentException("unexpected end of SMT-LIB input in string literal");
+  }
+
+  private String readQuotedSymbol(StringBuilder text) throws IOException {
+    StringBuilder symbol = new StringBuilder();
+    int c;
+    while ((c = input.read()) != -1) {
+      text.append((char) c);
+      if (c == '|') {
+        return symbol.toString();
+      }
+      symbol.append((char) c);
+    }
+    throw new IllegalArgumentException("unexpected end of SMT-LIB input in quoted symbol");
+  }
+}
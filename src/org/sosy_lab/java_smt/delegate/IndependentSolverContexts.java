@@ -0,0 +1,137 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Solver contexts and threads for delegates that solve parts of a query in parallel. Each part is
+ * solved with its own solver context, such that also solvers without thread-safe contexts can be
+ * used, and each part can be cancelled on its own.
+ */
+public final class IndependentSolverContexts implements AutoCloseable {
+
+  /** Creates a plain solver context that is cancelled by the given {@link ShutdownNotifier}. */
+  @FunctionalInterface
+  public interface SolverContextCreator {
+    SolverContext create(Solvers solver, ShutdownNotifier shutdownNotifier)
+        throws InvalidConfigurationException;
+  }
+
+  private final SolverContextCreator contextCreator;
+  private final ShutdownNotifier shutdownNotifier;
+  private final ExecutorService executor;
+
+  private IndependentSolverContexts(
+      SolverContextCreator pContextCreator,
+      ShutdownNotifier pShutdownNotifier,
+      ExecutorService pExecutor) {
+    contextCreator = checkNotNull(pContextCreator);
+    shutdownNotifier = checkNotNull(pShutdownNotifier);
+    executor = pExecutor;
+  }
+
+  /**
+   * Use a fixed number of threads.
+   *
+   * @param pThreads the number of threads, 0 for the number of available processors.
+   * @param pName the name of the threads, used for debugging.
+   */
+  public static IndependentSolverContexts withFixedThreadPool(
+      SolverContextCreator pContextCreator,
+      ShutdownNotifier pShutdownNotifier,
+      int pThreads,
+      String pName) {
+    checkArgument(pThreads >= 0, "number of threads must not be negative");
+    return new IndependentSolverContexts(
+        pContextCreator,
+        pShutdownNotifier,
+        Executors.newFixedThreadPool(
+            pThreads > 0 ? pThreads : Runtime.getRuntime().availableProcessors(),
+            newThreadFactory(pName)));
+  }
+
+  /** Use a new thread for each task, if no idle thread is available. */
+  public static IndependentSolverContexts withCachedThreadPool(
+      SolverContextCreator pContextCreator, ShutdownNotifier pShutdownNotifier, String pName) {
+    return new IndependentSolverContexts(
+        pContextCreator, pShutdownNotifier, Executors.newCachedThreadPool(newThreadFactory(pName)));
+  }
+
+  private static ThreadFactory newThreadFactory(String pName) {
+    return new ThreadFactoryBuilder()
+        .setDaemon(true)
+        .setNameFormat("JavaSMT-" + pName + "-%d")
+        .build();
+  }
+
+  /**
+   * Create a new context for the given solver. The context has to be closed by the caller.
+   *
+   * @throws IllegalStateException if the solver is not available.
+   */
+  public SolverContext createContext(Solvers pSolver, ShutdownNotifier pShutdownNotifier) {
+    try {
+      return contextCreator.create(pSolver, pShutdownNotifier);
+    } catch (InvalidConfigurationException e) {
+      throw new IllegalStateException("Solver " + pSolver + " is not available", e);
+    }
+  }
+
+  /** Create a {@link ShutdownManager} that is also triggered by the shutdown of the context. */
+  public ShutdownManager createShutdownManager() {
+    return ShutdownManager.createWithParent(shutdownNotifier);
+  }
+
+  public ShutdownNotifier getShutdownNotifier() {
+    return shutdownNotifier;
+  }
+
+  public ExecutorService getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Return the result of a finished task, or rethrow its failure. Checked exceptions other than
+   * {@link SolverException} and {@link InterruptedException} are wrapped in a {@link
+   * SolverException}.
+   */
+  public static <V> V getResult(Future<V> pFuture) throws SolverException, InterruptedException {
+    try {
+      return pFuture.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.throwIfInstanceOf(cause, SolverException.class);
+      Throwables.throwIfInstanceOf(cause, InterruptedException.class);
+      Throwables.throwIfUnchecked(cause);
+      throw new SolverException("Solving a part of the query failed", cause);
+    }
+  }
+
+  /** Stop all threads. The contexts are closed by their tasks. */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,303 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.allsat;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Evaluator;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.delegate.IndependentSolverContexts;
+
+/**
+ * Prover that forwards everything to its delegate, except for AllSAT queries, which are split into
+ * cubes over the first important predicates. Each cube is enumerated with its own solver context
+ * on the thread pool of the {@link ParallelAllSatSolverContext}.
+ *
+ * <p>The formulas are exchanged with the cube contexts in SMT-LIB format, because the formula
+ * manager of this prover must not be accessed from several threads. The models of a cube are
+ * encoded as literals over the indices of the predicates and are reported in the calling thread in
+ * the order of the cubes, as soon as a cube and all cubes before it are solved. Thus, the same
+ * query always reports its models in the same order. A failing cube aborts the whole query.
+ */
+class ParallelAllSatProverEnvironment implements ProverEnvironment {
+
+  /** Prefix of the proxy variables for the important predicates in the cube contexts. */
+  private static final String PROXY_PREFIX = "__parallel_allsat_predicate_";
+
+  private final ParallelAllSatSolverContext context;
+  private final ProverEnvironment delegate;
+  private final FormulaManager manager;
+  private final BooleanFormulaManager bmgr;
+  private final boolean generateAllSat;
+
+  /** Assertion stack, the first level is never popped. */
+  private final List<List<BooleanFormula>> stack = new ArrayList<>();
+
+  ParallelAllSatProverEnvironment(
+      ParallelAllSatSolverContext pContext,
+      ProverEnvironment pDelegate,
+      FormulaManager pManager,
+      ProverOptions... pOptions) {
+    context = checkNotNull(pContext);
+    delegate = checkNotNull(pDelegate);
+    manager = checkNotNull(pManager);
+    bmgr = manager.getBooleanFormulaManager();
+    generateAllSat = ImmutableList.copyOf(pOptions).contains(ProverOptions.GENERATE_ALL_SAT);
+    stack.add(new ArrayList<>());
+  }
+
+  @Override
+  public void push() throws InterruptedException {
+    delegate.push();
+    stack.add(new ArrayList<>());
+  }
+
+  @Override
+  public void pop() {
+    checkState(stack.size() > 1, "cannot pop from empty stack");
+    delegate.pop();
+    stack.remove(stack.size() - 1);
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula constraint) throws InterruptedException {
+    delegate.addConstraint(constraint);
+    stack.get(stack.size() - 1).add(constraint);
+    return null;
+  }
+
+  @Override
+  public int size() {
+    return delegate.size();
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    return delegate.isUnsat();
+  }
+
+  @Override
+  public CompletableFuture<Boolean> isUnsatAsync(Executor executor) {
+    return delegate.isUnsatAsync(executor);
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> assumptions)
+      throws SolverException, InterruptedException {
+    return delegate.isUnsatWithAssumptions(assumptions);
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    return delegate.getModel();
+  }
+
+  @Override
+  public Evaluator getEvaluator() throws SolverException {
+    return delegate.getEvaluator();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+    return delegate.getModelAssignments();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    return delegate.getUnsatCore();
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> assumptions) throws SolverException, InterruptedException {
+    return delegate.unsatCoreOverAssumptions(assumptions);
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> callback, List<BooleanFormula> important)
+      throws InterruptedException, SolverException {
+    int cubeVariables = context.getCubeVariables();
+    if (!generateAllSat || important.size() <= cubeVariables) {
+      // not worth splitting, or the delegate reports the missing option
+      return delegate.allSat(callback, important);
+    }
+
+    // serialize everything in this thread, the formula manager is not thread-safe
+    List<BooleanFormula> assertions = new ArrayList<>();
+    for (List<BooleanFormula> level : stack) {
+      assertions.addAll(level);
+    }
+    String query = manager.dumpFormula(bmgr.and(assertions)).toString();
+    checkArgument(
+        !query.contains(PROXY_PREFIX), "query must not contain symbols named %s*", PROXY_PREFIX);
+    ImmutableList.Builder<String> predicates = ImmutableList.builder();
+    for (BooleanFormula predicate : important) {
+      predicates.add(manager.dumpFormula(predicate).toString());
+    }
+    CubeQuery cubeQuery = new CubeQuery(query, predicates.build(), cubeVariables);
+
+    ShutdownManager shutdownManager = context.createShutdownManager();
+    CompletionService<List<int[]>> cubes = new ExecutorCompletionService<>(context.getExecutor());
+    List<Future<List<int[]>>> futures = new ArrayList<>();
+    try {
+      for (int cube = 0; cube < 1 << cubeVariables; cube++) {
+        int currentCube = cube;
+        futures.add(cubes.submit(() -> cubeQuery.solve(currentCube, shutdownManager)));
+      }
+
+      // Report the models in the order of the cubes, as soon as all previous cubes are reported.
+      // Finished cubes wait in the buffer, but a failure of any cube aborts the query directly.
+      Map<Future<List<int[]>>, List<int[]>> finishedCubes = new HashMap<>();
+      int nextCube = 0;
+      for (int i = 0; i < futures.size(); i++) {
+        Future<List<int[]>> finished = cubes.take();
+        finishedCubes.put(finished, IndependentSolverContexts.getResult(finished));
+        while (nextCube < futures.size() && finishedCubes.containsKey(futures.get(nextCube))) {
+          for (int[] literals : finishedCubes.remove(futures.get(nextCube))) {
+            ImmutableList.Builder<BooleanFormula> model = ImmutableList.builder();
+            for (int literal : literals) {
+              BooleanFormula predicate = important.get(Math.abs(literal) - 1);
+              model.add(literal > 0 ? predicate : bmgr.not(predicate));
+            }
+            callback.apply(model.build());
+          }
+          nextCube++;
+        }
+      }
+    } finally {
+      // stop the remaining cubes if a cube or the callback failed, or we were interrupted
+      shutdownManager.requestShutdown("parallel AllSAT query finished");
+      for (Future<List<int[]>> future : futures) {
+        future.cancel(false);
+      }
+    }
+    return callback.getResult();
+  }
+
+  /**
+   * A serialized AllSAT query, solved per cube in its own context. Models are returned as literals,
+   * where the literal {@code i} represents the {@code i}-th predicate (counting from 1) and {@code
+   * -i} its negation.
+   */
+  private final class CubeQuery {
+
+    private final String query;
+    private final ImmutableList<String> predicates;
+    private final int cubeVariables;
+
+    CubeQuery(String pQuery, ImmutableList<String> pPredicates, int pCubeVariables) {
+      checkArgument(pCubeVariables < pPredicates.size());
+      query = pQuery;
+      predicates = pPredicates;
+      cubeVariables = pCubeVariables;
+    }
+
+    /** The cube is encoded bitwise, a zero bit represents the positive predicate. */
+    private boolean isPositive(int cube, int predicate) {
+      return (cube & (1 << (cubeVariables - 1 - predicate))) == 0;
+    }
+
+    List<int[]> solve(int cube, ShutdownManager shutdownManager)
+        throws SolverException, InterruptedException {
+      try (SolverContext cubeContext = context.createContext(shutdownManager.getNotifier());
+          ProverEnvironment prover =
+              cubeContext.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+        FormulaManager cubeManager = cubeContext.getFormulaManager();
+        BooleanFormulaManager cubeBmgr = cubeManager.getBooleanFormulaManager();
+        prover.addConstraint(cubeManager.parse(query));
+
+        final int[] cubeLiterals = new int[cubeVariables];
+        for (int i = 0; i < cubeVariables; i++) {
+          BooleanFormula predicate = cubeManager.parse(predicates.get(i));
+          if (isPositive(cube, i)) {
+            prover.addConstraint(predicate);
+            cubeLiterals[i] = i + 1;
+          } else {
+            prover.addConstraint(cubeBmgr.not(predicate));
+            cubeLiterals[i] = -(i + 1);
+          }
+        }
+        if (prover.isUnsat()) {
+          return ImmutableList.of();
+        }
+
+        // Each remaining predicate is represented by its own proxy variable, such that equal or
+        // complementary predicates can still be distinguished by their index in the model.
+        List<BooleanFormula> remaining = new ArrayList<>();
+        Map<BooleanFormula, Integer> literals = new HashMap<>();
+        for (int i = cubeVariables; i < predicates.size(); i++) {
+          BooleanFormula proxy = cubeBmgr.makeVariable(PROXY_PREFIX + i);
+          prover.addConstraint(cubeBmgr.equivalence(proxy, cubeManager.parse(predicates.get(i))));
+          remaining.add(proxy);
+          literals.put(proxy, i + 1);
+          literals.put(cubeBmgr.not(proxy), -(i + 1));
+        }
+
+        return prover.allSat(
+            new AllSatCallback<>() {
+              private final List<int[]> models = new ArrayList<>();
+
+              @Override
+              public void apply(List<BooleanFormula> model) {
+                int[] encoded = new int[cubeVariables + model.size()];
+                System.arraycopy(cubeLiterals, 0, encoded, 0, cubeVariables);
+                int pos = cubeVariables;
+                for (BooleanFormula value : model) {
+                  Integer literal = literals.get(value);
+                  checkState(literal != null, "unexpected formula %s in AllSAT model", value);
+                  encoded[pos++] = literal;
+                }
+                models.add(encoded);
+              }
+
+              @Override
+              public List<int[]> getResult() {
+                return models;
+              }
+            },
+            remaining);
+      }
+    }
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return delegate.getStatistics();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+}
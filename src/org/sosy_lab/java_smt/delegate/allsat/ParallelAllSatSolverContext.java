@@ -0,0 +1,144 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.allsat;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.ExecutorService;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverPool;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.basicimpl.ProverPools;
+import org.sosy_lab.java_smt.delegate.IndependentSolverContexts;
+import org.sosy_lab.java_smt.delegate.IndependentSolverContexts.SolverContextCreator;
+
+/**
+ * A {@link SolverContext} whose provers split each AllSAT query into cubes over the first important
+ * predicates and enumerate the models of all cubes in parallel. Each cube is solved with its own
+ * solver context, such that also solvers without thread-safe contexts can be used.
+ *
+ * <p>The models are reported to the callback in the calling thread in the order of the cubes, as
+ * soon as their cube and all previous cubes are solved. Only the plain {@link ProverEnvironment} is
+ * wrapped, interpolation and optimization are directly handled by the wrapped context.
+ */
+@Options(prefix = "solver.parallelAllSat")
+public class ParallelAllSatSolverContext implements SolverContext {
+
+  @Option(
+      secure = true,
+      description =
+          "Number of important predicates used for splitting an AllSAT query into cubes. An AllSAT"
+              + " query is split into 2^n independent queries.")
+  @IntegerOption(min = 1, max = 12)
+  private int cubeVariables = 3;
+
+  @Option(
+      secure = true,
+      description =
+          "Number of threads for solving the cubes of AllSAT queries,"
+              + " 0 for the number of available processors.")
+  @IntegerOption(min = 0)
+  private int threads = 0;
+
+  private final SolverContext delegate;
+  private final ProverPools proverPools = new ProverPools();
+  private final IndependentSolverContexts cubeContexts;
+
+  public ParallelAllSatSolverContext(
+      Configuration pConfig,
+      SolverContext pDelegate,
+      SolverContextCreator pContextCreator,
+      ShutdownNotifier pShutdownNotifier)
+      throws InvalidConfigurationException {
+    pConfig.inject(this, ParallelAllSatSolverContext.class);
+    delegate = checkNotNull(pDelegate);
+    cubeContexts =
+        IndependentSolverContexts.withFixedThreadPool(
+            pContextCreator, pShutdownNotifier, threads, "allsat");
+  }
+
+  /** Create a new context for solving one cube of an AllSAT query. */
+  SolverContext createContext(ShutdownNotifier pShutdownNotifier) {
+    return cubeContexts.createContext(delegate.getSolverName(), pShutdownNotifier);
+  }
+
+  int getCubeVariables() {
+    return cubeVariables;
+  }
+
+  ShutdownManager createShutdownManager() {
+    return cubeContexts.createShutdownManager();
+  }
+
+  ExecutorService getExecutor() {
+    return cubeContexts.getExecutor();
+  }
+
+  @Override
+  public FormulaManager getFormulaManager() {
+    return delegate.getFormulaManager();
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public ProverEnvironment newProverEnvironment(ProverOptions... pOptions) {
+    return new ParallelAllSatProverEnvironment(
+        this, delegate.newProverEnvironment(pOptions), delegate.getFormulaManager(), pOptions);
+  }
+
+  @Override
+  public InterpolatingProverEnvironment<?> newProverEnvironmentWithInterpolation(
+      ProverOptions... pOptions) {
+    return delegate.newProverEnvironmentWithInterpolation(pOptions);
+  }
+
+  @Override
+  public OptimizationProverEnvironment newOptimizationProverEnvironment(ProverOptions... pOptions) {
+    return delegate.newOptimizationProverEnvironment(pOptions);
+  }
+
+  @Override
+  public ProverPool newProverPool(int pMaxIdleProvers) {
+    return proverPools.newProverPool(this, pMaxIdleProvers);
+  }
+
+  @Override
+  public String getVersion() {
+    return delegate.getVersion();
+  }
+
+  @Override
+  public Solvers getSolverName() {
+    return delegate.getSolverName();
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return delegate.getStatistics();
+  }
+
+  @Override
+  public void close() {
+    proverPools.close();
+    cubeContexts.close();
+    delegate.close();
+  }
+}
@@ -0,0 +1,269 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.caching;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Evaluator;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.delegate.caching.QueryCache.Query;
+import org.sosy_lab.java_smt.delegate.caching.QueryCache.Result;
+
+/**
+ * Prover that answers satisfiability queries from a {@link QueryCache} if possible.
+ *
+ * <p>The assertion stack is always forwarded to the delegate. Only the check itself is skipped for
+ * a cached query, and it is executed lazily if the user requests a model or an unsat core that is
+ * not yet cached. Cached models and unsat cores are only served if this prover was created with
+ * the option for generating them, otherwise the request is forwarded to the delegate, which reports
+ * the missing option.
+ */
+class CachingProverEnvironment implements ProverEnvironment {
+
+  private final ProverEnvironment delegate;
+  private final QueryCache cache;
+  private final ImmutableSet<ProverOptions> options;
+
+  /** Assertion stack, the first level is never popped. */
+  private final List<List<BooleanFormula>> stack = new ArrayList<>();
+
+  /** Memoized set of all asserted formulas, invalidated on each change of the stack. */
+  private @Nullable ImmutableSet<BooleanFormula> assertions = null;
+
+  /** The result of the last query, null if the stack was changed afterwards. */
+  private @Nullable Result lastResult = null;
+
+  /** The last query was answered from the cache and the delegate has not been checked. */
+  private boolean delegateCheckPending = false;
+
+  /** The assumptions of the last query, null for a query without assumptions. */
+  private @Nullable Collection<BooleanFormula> lastAssumptions = null;
+
+  CachingProverEnvironment(
+      ProverEnvironment pDelegate, QueryCache pCache, ProverOptions... pOptions) {
+    delegate = checkNotNull(pDelegate);
+    cache = checkNotNull(pCache);
+    options = ImmutableSet.copyOf(pOptions);
+    stack.add(new ArrayList<>());
+  }
+
+  private void stackChanged() {
+    assertions = null;
+    lastResult = null;
+    delegateCheckPending = false;
+    lastAssumptions = null;
+  }
+
+  private Query getQuery(Collection<BooleanFormula> pAssumptions) {
+    if (assertions == null) {
+      ImmutableSet.Builder<BooleanFormula> builder = ImmutableSet.builder();
+      for (List<BooleanFormula> level : stack) {
+        builder.addAll(level);
+      }
+      assertions = builder.build();
+    }
+    return new Query(assertions, ImmutableSet.copyOf(pAssumptions));
+  }
+
+  /** Run the check on the delegate, if the last query was answered from the cache. */
+  private void checkDelegateIfPending() throws SolverException, InterruptedException {
+    if (delegateCheckPending) {
+      delegateCheckPending = false;
+      boolean unsat =
+          lastAssumptions == null
+              ? delegate.isUnsat()
+              : delegate.isUnsatWithAssumptions(lastAssumptions);
+      checkState(
+          unsat == checkNotNull(lastResult).isUnsat(),
+          "cached result does not match the solver result");
+    }
+  }
+
+  @Override
+  public void push() throws InterruptedException {
+    stackChanged();
+    delegate.push();
+    stack.add(new ArrayList<>());
+  }
+
+  @Override
+  public void pop() {
+    checkState(stack.size() > 1, "cannot pop from empty stack");
+    stackChanged();
+    delegate.pop();
+    stack.remove(stack.size() - 1);
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula constraint) throws InterruptedException {
+    stackChanged();
+    delegate.addConstraint(constraint);
+    stack.get(stack.size() - 1).add(constraint);
+    return null;
+  }
+
+  @Override
+  public int size() {
+    return delegate.size();
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    return isUnsat0(ImmutableList.of(), null);
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    return isUnsat0(pAssumptions, ImmutableList.copyOf(pAssumptions));
+  }
+
+  private boolean isUnsat0(
+      Collection<BooleanFormula> pKey, @Nullable Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    Query query = getQuery(pKey);
+    Result result = cache.get(query);
+    lastAssumptions = pAssumptions;
+    if (result != null) {
+      lastResult = result;
+      delegateCheckPending = true;
+      return result.isUnsat();
+    }
+    boolean unsat =
+        pAssumptions == null ? delegate.isUnsat() : delegate.isUnsatWithAssumptions(pAssumptions);
+    lastResult = cache.put(query, unsat);
+    delegateCheckPending = false;
+    return unsat;
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    checkDelegateForArtifact();
+    return delegate.getModel();
+  }
+
+  @Override
+  public Evaluator getEvaluator() throws SolverException {
+    checkDelegateForArtifact();
+    return delegate.getEvaluator();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+    Result result = lastResult;
+    if (result != null && options.contains(ProverOptions.GENERATE_MODELS)) {
+      ImmutableList<ValueAssignment> assignments = result.getModelAssignments();
+      if (assignments == null) {
+        checkDelegateForArtifact();
+        assignments = delegate.getModelAssignments();
+        result.setModelAssignments(assignments);
+      }
+      return assignments;
+    }
+    return delegate.getModelAssignments();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    Result result = lastResult;
+    if (result == null || !options.contains(ProverOptions.GENERATE_UNSAT_CORE)) {
+      return delegate.getUnsatCore();
+    }
+    ImmutableList<BooleanFormula> core = result.getUnsatCore();
+    if (core == null) {
+      try {
+        checkDelegateIfPending();
+      } catch (SolverException e) {
+        throw new IllegalStateException("re-checking a cached query failed", e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("interrupted while re-checking a cached query", e);
+      }
+      core = ImmutableList.copyOf(delegate.getUnsatCore());
+      result.setUnsatCore(core);
+    }
+    return core;
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    if (!options.contains(ProverOptions.GENERATE_UNSAT_CORE_OVER_ASSUMPTIONS)) {
+      // the delegate reports the missing option, the last check stays valid
+      return delegate.unsatCoreOverAssumptions(pAssumptions);
+    }
+    Query query = getQuery(pAssumptions);
+    Result result = cache.get(query);
+    if (result != null) {
+      Optional<ImmutableList<BooleanFormula>> core = result.getUnsatCoreOverAssumptions();
+      if (core != null) {
+        lastResult = result;
+        lastAssumptions = ImmutableList.copyOf(pAssumptions);
+        delegateCheckPending = true;
+        return core.map(c -> c);
+      }
+    }
+    Optional<List<BooleanFormula>> core = delegate.unsatCoreOverAssumptions(pAssumptions);
+    if (result == null) {
+      result = cache.put(query, core.isPresent());
+    }
+    result.setUnsatCoreOverAssumptions(core.map(ImmutableList::copyOf));
+    // the delegate has been checked with these assumptions now
+    lastResult = result;
+    lastAssumptions = ImmutableList.copyOf(pAssumptions);
+    delegateCheckPending = false;
+    return core;
+  }
+
+  /** Models and evaluators can not be cached, thus we need a checked delegate. */
+  private void checkDelegateForArtifact() throws SolverException {
+    try {
+      checkDelegateIfPending();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SolverException("interrupted while re-checking a cached query", e);
+    }
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> callback, List<BooleanFormula> important)
+      throws InterruptedException, SolverException {
+    // AllSat modifies the solver state, thus the last check is no longer valid.
+    lastResult = null;
+    delegateCheckPending = false;
+    return delegate.allSat(callback, important);
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return ImmutableMap.<String, String>builder()
+        .putAll(delegate.getStatistics())
+        .putAll(cache.getStatistics())
+        .buildKeepingLast();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+}
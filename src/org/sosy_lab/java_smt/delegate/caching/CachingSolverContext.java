@@ -0,0 +1,103 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.caching;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverPool;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.basicimpl.ProverPools;
+
+/**
+ * A {@link SolverContext} whose provers share a cache for the results of satisfiability queries.
+ * Only the plain {@link ProverEnvironment} is cached, interpolation and optimization queries are
+ * always forwarded to the solver.
+ */
+@Options(prefix = "solver.cacheQueries")
+public class CachingSolverContext implements SolverContext {
+
+  @Option(
+      secure = true,
+      description = "Maximum number of cached queries, the least recently used ones are evicted.")
+  @IntegerOption(min = 1)
+  private int size = 10000;
+
+  private final SolverContext delegate;
+  private final ProverPools proverPools = new ProverPools();
+  private final QueryCache cache;
+
+  public CachingSolverContext(Configuration pConfig, SolverContext pDelegate)
+      throws InvalidConfigurationException {
+    pConfig.inject(this, CachingSolverContext.class);
+    delegate = checkNotNull(pDelegate);
+    cache = new QueryCache(size);
+  }
+
+  @Override
+  public FormulaManager getFormulaManager() {
+    return delegate.getFormulaManager();
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public ProverEnvironment newProverEnvironment(ProverOptions... pOptions) {
+    return new CachingProverEnvironment(delegate.newProverEnvironment(pOptions), cache, pOptions);
+  }
+
+  @Override
+  public InterpolatingProverEnvironment<?> newProverEnvironmentWithInterpolation(
+      ProverOptions... pOptions) {
+    return delegate.newProverEnvironmentWithInterpolation(pOptions);
+  }
+
+  @Override
+  public OptimizationProverEnvironment newOptimizationProverEnvironment(ProverOptions... pOptions) {
+    return delegate.newOptimizationProverEnvironment(pOptions);
+  }
+
+  @Override
+  public ProverPool newProverPool(int pMaxIdleProvers) {
+    return proverPools.newProverPool(this, pMaxIdleProvers);
+  }
+
+  @Override
+  public String getVersion() {
+    return delegate.getVersion();
+  }
+
+  @Override
+  public Solvers getSolverName() {
+    return delegate.getSolverName();
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return ImmutableMap.<String, String>builder()
+        .putAll(delegate.getStatistics())
+        .putAll(cache.getStatistics())
+        .buildKeepingLast();
+  }
+
+  @Override
+  public void close() {
+    proverPools.close();
+    delegate.close();
+  }
+}
@@ -0,0 +1,161 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.caching;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+
+/**
+ * Bounded cache with LRU eviction for the results of satisfiability queries. The cache is shared
+ * by all provers of one context, such that formulas in the cached models and unsat cores stay
+ * valid.
+ */
+class QueryCache {
+
+  /** The key of a query: the set of asserted formulas and the set of assumptions. */
+  static final class Query {
+
+    private final ImmutableSet<BooleanFormula> assertions;
+    private final ImmutableSet<BooleanFormula> assumptions;
+    private final int hashCode;
+
+    Query(ImmutableSet<BooleanFormula> pAssertions, ImmutableSet<BooleanFormula> pAssumptions) {
+      assertions = pAssertions;
+      assumptions = pAssumptions;
+      hashCode = Objects.hash(assertions, assumptions);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Query)) {
+        return false;
+      }
+      Query query = (Query) other;
+      return hashCode == query.hashCode
+          && assertions.equals(query.assertions)
+          && assumptions.equals(query.assumptions);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /**
+   * The cached result of a query. Models and unsat cores are added when the user requests them for
+   * the first time.
+   */
+  static final class Result {
+
+    private final boolean unsat;
+    private @Nullable ImmutableList<ValueAssignment> modelAssignments = null;
+    private @Nullable ImmutableList<BooleanFormula> unsatCore = null;
+    private @Nullable Optional<ImmutableList<BooleanFormula>> unsatCoreOverAssumptions = null;
+
+    Result(boolean pUnsat) {
+      unsat = pUnsat;
+    }
+
+    boolean isUnsat() {
+      return unsat;
+    }
+
+    synchronized @Nullable ImmutableList<ValueAssignment> getModelAssignments() {
+      return modelAssignments;
+    }
+
+    synchronized void setModelAssignments(ImmutableList<ValueAssignment> pModelAssignments) {
+      modelAssignments = pModelAssignments;
+    }
+
+    synchronized @Nullable ImmutableList<BooleanFormula> getUnsatCore() {
+      return unsatCore;
+    }
+
+    synchronized void setUnsatCore(ImmutableList<BooleanFormula> pUnsatCore) {
+      unsatCore = pUnsatCore;
+    }
+
+    @SuppressWarnings("NullableOptional") // null means "unknown", empty means "no core"
+    synchronized @Nullable Optional<ImmutableList<BooleanFormula>> getUnsatCoreOverAssumptions() {
+      return unsatCoreOverAssumptions;
+    }
+
+    synchronized void setUnsatCoreOverAssumptions(
+        Optional<ImmutableList<BooleanFormula>> pUnsatCoreOverAssumptions) {
+      unsatCoreOverAssumptions = pUnsatCoreOverAssumptions;
+    }
+  }
+
+  private final Map<Query, Result> cache;
+
+  private final AtomicInteger hits = new AtomicInteger();
+  private final AtomicInteger misses = new AtomicInteger();
+  private final AtomicInteger evictions = new AtomicInteger();
+
+  @SuppressWarnings("serial")
+  QueryCache(int pMaximumSize) {
+    checkArgument(pMaximumSize > 0, "cache size must be positive, but was %s", pMaximumSize);
+    cache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Query, Result> eldest) {
+            if (size() > pMaximumSize) {
+              evictions.incrementAndGet();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /** Return the cached result of the query and count the access as hit or miss. */
+  synchronized @Nullable Result get(Query query) {
+    Result result = cache.get(query);
+    if (result == null) {
+      misses.incrementAndGet();
+    } else {
+      hits.incrementAndGet();
+    }
+    return result;
+  }
+
+  synchronized Result put(Query query, boolean unsat) {
+    Result result = new Result(unsat);
+    cache.put(query, result);
+    return result;
+  }
+
+  ImmutableMap<String, String> getStatistics() {
+    int size;
+    synchronized (this) {
+      size = cache.size();
+    }
+    return ImmutableMap.of(
+        "query cache hits", Integer.toString(hits.get()),
+        "query cache misses", Integer.toString(misses.get()),
+        "query cache evictions", Integer.toString(evictions.get()),
+        "query cache size", Integer.toString(size));
+  }
+}
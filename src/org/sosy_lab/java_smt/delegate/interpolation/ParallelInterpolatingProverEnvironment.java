@@ -0,0 +1,351 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.interpolation;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Evaluator;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.delegate.IndependentSolverContexts;
+
+/**
+ * Prover that forwards everything to its delegate, except for sequence interpolation queries with
+ * many cut points. Those are split into consecutive chunks of cut points, and the interpolants of
+ * each chunk are computed with its own solver context on the thread pool of the {@link
+ * ParallelInterpolationSolverContext}.
+ *
+ * <p>The formulas are exchanged with the chunk contexts in SMT-LIB format, because the formula
+ * manager of this prover must not be accessed from several threads. Each chunk context solves the
+ * whole query again and computes its interpolants from its own proof. The interpolants of one chunk
+ * form an inductive sequence. At the borders of the chunks, the interpolants are checked
+ * afterwards, and a chunk whose first interpolant does not follow from the last interpolant of the
+ * previous chunk and the partition between them is computed again from that interpolant. If the
+ * border is still not inductive, e.g., because the solver used the background formulas, the whole
+ * sequence is computed sequentially by the delegate. Thus, the returned sequence is inductive.
+ *
+ * <p>A failure of any chunk aborts the other chunks and is thrown by the query.
+ */
+class ParallelInterpolatingProverEnvironment<T> implements InterpolatingProverEnvironment<T> {
+
+  private final ParallelInterpolationSolverContext context;
+  private final InterpolatingProverEnvironment<T> delegate;
+  private final FormulaManager manager;
+  private final BooleanFormulaManager bmgr;
+
+  /** Assertion stack with the asserted formula for each handle, the first level is never popped. */
+  private final List<Map<T, BooleanFormula>> stack = new ArrayList<>();
+
+  ParallelInterpolatingProverEnvironment(
+      ParallelInterpolationSolverContext pContext,
+      InterpolatingProverEnvironment<T> pDelegate,
+      FormulaManager pManager) {
+    context = checkNotNull(pContext);
+    delegate = checkNotNull(pDelegate);
+    manager = checkNotNull(pManager);
+    bmgr = manager.getBooleanFormulaManager();
+    stack.add(new LinkedHashMap<>());
+  }
+
+  @Override
+  public void push() throws InterruptedException {
+    delegate.push();
+    stack.add(new LinkedHashMap<>());
+  }
+
+  @Override
+  public void pop() {
+    checkState(stack.size() > 1, "cannot pop from empty stack");
+    delegate.pop();
+    stack.remove(stack.size() - 1);
+  }
+
+  @Override
+  public T addConstraint(BooleanFormula constraint) throws InterruptedException {
+    T handle = delegate.addConstraint(constraint);
+    stack.get(stack.size() - 1).put(handle, constraint);
+    return handle;
+  }
+
+  @Override
+  public int size() {
+    return delegate.size();
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    return delegate.isUnsat();
+  }
+
+  @Override
+  public CompletableFuture<Boolean> isUnsatAsync(Executor executor) {
+    return delegate.isUnsatAsync(executor);
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> assumptions)
+      throws SolverException, InterruptedException {
+    return delegate.isUnsatWithAssumptions(assumptions);
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    return delegate.getModel();
+  }
+
+  @Override
+  public Evaluator getEvaluator() throws SolverException {
+    return delegate.getEvaluator();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+    return delegate.getModelAssignments();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    return delegate.getUnsatCore();
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> assumptions) throws SolverException, InterruptedException {
+    return delegate.unsatCoreOverAssumptions(assumptions);
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> callback, List<BooleanFormula> important)
+      throws InterruptedException, SolverException {
+    return delegate.allSat(callback, important);
+  }
+
+  @Override
+  public BooleanFormula getInterpolant(Collection<T> formulasOfA)
+      throws SolverException, InterruptedException {
+    return delegate.getInterpolant(formulasOfA);
+  }
+
+  @Override
+  public List<BooleanFormula> getSeqInterpolants(List<? extends Collection<T>> partitionedFormulas)
+      throws SolverException, InterruptedException {
+    int cutPoints = partitionedFormulas.size() - 1;
+    int chunks = context.getNumberOfChunks(cutPoints);
+    if (chunks <= 1) {
+      return delegate.getSeqInterpolants(partitionedFormulas);
+    }
+
+    // serialize everything in this thread, the formula manager is not thread-safe
+    Map<T, BooleanFormula> background = new LinkedHashMap<>();
+    for (Map<T, BooleanFormula> level : stack) {
+      background.putAll(level);
+    }
+    List<BooleanFormula> partitions = new ArrayList<>(partitionedFormulas.size());
+    for (Collection<T> partition : partitionedFormulas) {
+      List<BooleanFormula> formulas = new ArrayList<>(partition.size());
+      for (T handle : partition) {
+        BooleanFormula formula = background.remove(handle);
+        if (formula == null) {
+          // unknown or duplicate handle, the delegate reports this
+          return delegate.getSeqInterpolants(partitionedFormulas);
+        }
+        formulas.add(formula);
+      }
+      partitions.add(bmgr.and(formulas));
+    }
+    ChunkQuery chunkQuery = new ChunkQuery(dump(bmgr.and(background.values())), partitions);
+
+    // the chunk c computes the interpolants for the cut points [bounds[c], bounds[c + 1])
+    int[] bounds = new int[chunks + 1];
+    for (int chunk = 0; chunk <= chunks; chunk++) {
+      bounds[chunk] = 1 + chunk * cutPoints / chunks;
+    }
+
+    List<List<String>> results = new ArrayList<>(chunks);
+    ShutdownManager shutdownManager = context.createShutdownManager();
+    List<Future<List<String>>> futures = new ArrayList<>(chunks);
+    try {
+      for (int chunk = 0; chunk < chunks; chunk++) {
+        int from = bounds[chunk];
+        int to = bounds[chunk + 1];
+        futures.add(
+            context
+                .getExecutor()
+                .submit(() -> chunkQuery.solve(from, to, null, shutdownManager)));
+      }
+      for (Future<List<String>> future : futures) {
+        results.add(IndependentSolverContexts.getResult(future));
+      }
+    } finally {
+      shutdownManager.requestShutdown("parallel interpolation query is finished");
+      for (Future<List<String>> future : futures) {
+        future.cancel(false);
+      }
+    }
+
+    // The sequence of each chunk is inductive, but the first interpolant of a chunk does not
+    // necessarily follow from the last interpolant of the previous chunk. In this case, the chunk
+    // is computed again starting from that interpolant. The background formulas are not part of
+    // the check, because they are not part of any partition.
+    List<BooleanFormula> itps = new ArrayList<>(cutPoints);
+    itps.addAll(parse(results.get(0)));
+    for (int chunk = 1; chunk < chunks; chunk++) {
+      int from = bounds[chunk];
+      BooleanFormula previous = itps.get(from - 2);
+      BooleanFormula border = bmgr.and(previous, partitions.get(from - 1));
+      List<BooleanFormula> chunkItps = parse(results.get(chunk));
+      if (!implies(border, chunkItps.get(0))) {
+        chunkItps =
+            parse(
+                chunkQuery.solve(
+                    from, bounds[chunk + 1], dump(previous), context.createShutdownManager()));
+        if (!implies(border, chunkItps.get(0))) {
+          // the solver used the background formulas for the interpolant, and only the sequential
+          // computation with a single proof is guaranteed to be inductive
+          return delegate.getSeqInterpolants(partitionedFormulas);
+        }
+      }
+      itps.addAll(chunkItps);
+    }
+    return ImmutableList.copyOf(itps);
+  }
+
+  /** Checks whether the formula a implies the formula b with a fresh prover. */
+  private boolean implies(BooleanFormula a, BooleanFormula b)
+      throws SolverException, InterruptedException {
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(bmgr.and(a, bmgr.not(b)));
+      return prover.isUnsat();
+    }
+  }
+
+  private String dump(BooleanFormula formula) {
+    return manager.dumpFormula(formula).toString();
+  }
+
+  private List<BooleanFormula> parse(List<String> formulas) {
+    List<BooleanFormula> result = new ArrayList<>(formulas.size());
+    for (String formula : formulas) {
+      result.add(manager.parse(formula));
+    }
+    return result;
+  }
+
+  /**
+   * A serialized interpolation query, solved per chunk of cut points in its own context. The
+   * interpolants are returned in SMT-LIB format.
+   */
+  private final class ChunkQuery {
+
+    private final String background;
+    private final ImmutableList<String> partitions;
+
+    ChunkQuery(String pBackground, List<BooleanFormula> pPartitions) {
+      background = pBackground;
+      ImmutableList.Builder<String> builder = ImmutableList.builder();
+      for (BooleanFormula partition : pPartitions) {
+        builder.add(dump(partition));
+      }
+      partitions = builder.build();
+    }
+
+    /**
+     * Computes the interpolants for the cut points [from, to). If an interpolant for the cut point
+     * before is given, it replaces the partitions before that cut point, such that the first
+     * computed interpolant follows from it and the partition between both cut points.
+     */
+    List<String> solve(
+        int from, int to, @Nullable String previousItp, ShutdownManager shutdownManager)
+        throws SolverException, InterruptedException {
+      try (SolverContext chunkContext = context.createContext(shutdownManager.getNotifier());
+          InterpolatingProverEnvironment<?> prover =
+              chunkContext.newProverEnvironmentWithInterpolation()) {
+        return solve(chunkContext.getFormulaManager(), prover, from, to, previousItp);
+      }
+    }
+
+    private <S> List<String> solve(
+        FormulaManager chunkManager,
+        InterpolatingProverEnvironment<S> prover,
+        int from,
+        int to,
+        @Nullable String previousItp)
+        throws SolverException, InterruptedException {
+      BooleanFormulaManager chunkBmgr = chunkManager.getBooleanFormulaManager();
+      prover.addConstraint(chunkManager.parse(background));
+
+      // the groups are the prefix up to the first cut point, the partitions between the cut
+      // points, and the suffix after the last cut point
+      List<BooleanFormula> prefix = new ArrayList<>();
+      if (previousItp == null) {
+        for (String partition : partitions.subList(0, from)) {
+          prefix.add(chunkManager.parse(partition));
+        }
+      } else {
+        prefix.add(chunkManager.parse(previousItp));
+        prefix.add(chunkManager.parse(partitions.get(from - 1)));
+      }
+      List<S> groups = new ArrayList<>(to - from + 1);
+      groups.add(prover.push(chunkBmgr.and(prefix)));
+      for (String partition : partitions.subList(from, to - 1)) {
+        groups.add(prover.push(chunkManager.parse(partition)));
+      }
+      List<BooleanFormula> suffix = new ArrayList<>();
+      for (String partition : partitions.subList(to - 1, partitions.size())) {
+        suffix.add(chunkManager.parse(partition));
+      }
+      groups.add(prover.push(chunkBmgr.and(suffix)));
+      checkState(prover.isUnsat(), "interpolation query is expected to be unsatisfiable");
+
+      List<String> itps = new ArrayList<>(to - from);
+      for (BooleanFormula itp : prover.getSeqInterpolants0(groups)) {
+        itps.add(chunkManager.dumpFormula(itp).toString());
+      }
+      return itps;
+    }
+  }
+
+  @Override
+  public List<BooleanFormula> getTreeInterpolants(
+      List<? extends Collection<T>> partitionedFormulas, int[] startOfSubTree)
+      throws SolverException, InterruptedException {
+    return delegate.getTreeInterpolants(partitionedFormulas, startOfSubTree);
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return delegate.getStatistics();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+}
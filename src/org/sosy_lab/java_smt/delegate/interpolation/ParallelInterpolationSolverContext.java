@@ -0,0 +1,148 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.interpolation;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.ExecutorService;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverPool;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.basicimpl.ProverPools;
+import org.sosy_lab.java_smt.delegate.IndependentSolverContexts;
+import org.sosy_lab.java_smt.delegate.IndependentSolverContexts.SolverContextCreator;
+
+/**
+ * A {@link SolverContext} whose interpolating provers split the cut points of a sequence
+ * interpolation query into consecutive chunks and compute the interpolants of all chunks in
+ * parallel. Each chunk is solved with its own solver context, such that also solvers without
+ * thread-safe contexts can be used.
+ *
+ * <p>The interpolants are returned in the order of the cut points. Only the {@link
+ * InterpolatingProverEnvironment} is wrapped, all other provers are directly handled by the wrapped
+ * context.
+ */
+@Options(prefix = "solver.parallelInterpolation")
+public class ParallelInterpolationSolverContext implements SolverContext {
+
+  @Option(
+      secure = true,
+      description =
+          "Number of threads for computing the interpolants of a sequence,"
+              + " 0 for the number of available processors.")
+  @IntegerOption(min = 0)
+  private int threads = 0;
+
+  @Option(
+      secure = true,
+      description =
+          "Minimal number of cut points per thread. Shorter sequences are computed by fewer"
+              + " threads, because each thread has to solve the whole query again.")
+  @IntegerOption(min = 1)
+  private int minCutPointsPerThread = 8;
+
+  private final SolverContext delegate;
+  private final ProverPools proverPools = new ProverPools();
+  private final int numberOfThreads;
+  private final IndependentSolverContexts chunkContexts;
+
+  public ParallelInterpolationSolverContext(
+      Configuration pConfig,
+      SolverContext pDelegate,
+      SolverContextCreator pContextCreator,
+      ShutdownNotifier pShutdownNotifier)
+      throws InvalidConfigurationException {
+    pConfig.inject(this, ParallelInterpolationSolverContext.class);
+    delegate = checkNotNull(pDelegate);
+    numberOfThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    chunkContexts =
+        IndependentSolverContexts.withFixedThreadPool(
+            pContextCreator, pShutdownNotifier, numberOfThreads, "interpolation");
+  }
+
+  /** Create a new context for computing the interpolants of some cut points. */
+  SolverContext createContext(ShutdownNotifier pShutdownNotifier) {
+    return chunkContexts.createContext(delegate.getSolverName(), pShutdownNotifier);
+  }
+
+  /** Returns the number of chunks into which the given number of cut points should be split. */
+  int getNumberOfChunks(int pCutPoints) {
+    return Math.max(1, Math.min(numberOfThreads, pCutPoints / minCutPointsPerThread));
+  }
+
+  ShutdownManager createShutdownManager() {
+    return chunkContexts.createShutdownManager();
+  }
+
+  ExecutorService getExecutor() {
+    return chunkContexts.getExecutor();
+  }
+
+  @Override
+  public FormulaManager getFormulaManager() {
+    return delegate.getFormulaManager();
+  }
+
+  @Override
+  public ProverEnvironment newProverEnvironment(ProverOptions... pOptions) {
+    return delegate.newProverEnvironment(pOptions);
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public InterpolatingProverEnvironment<?> newProverEnvironmentWithInterpolation(
+      ProverOptions... pOptions) {
+    return new ParallelInterpolatingProverEnvironment<>(
+        this, delegate.newProverEnvironmentWithInterpolation(pOptions), getFormulaManager());
+  }
+
+  @Override
+  public OptimizationProverEnvironment newOptimizationProverEnvironment(ProverOptions... pOptions) {
+    return delegate.newOptimizationProverEnvironment(pOptions);
+  }
+
+  @Override
+  public ProverPool newProverPool(int pMaxIdleProvers) {
+    return proverPools.newProverPool(this, pMaxIdleProvers);
+  }
+
+  @Override
+  public String getVersion() {
+    return delegate.getVersion();
+  }
+
+  @Override
+  public Solvers getSolverName() {
+    return delegate.getSolverName();
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return delegate.getStatistics();
+  }
+
+  @Override
+  public void close() {
+    proverPools.close();
+    chunkContexts.close();
+    delegate.close();
+  }
+}
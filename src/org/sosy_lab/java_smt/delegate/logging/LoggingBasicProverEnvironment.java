@@ -16,6 +16,8 @@ import com.google.common.collect.ImmutableMap;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment;
@@ -76,6 +78,15 @@ class LoggingBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
     return result;
   }
 
+  @Override
+  public CompletableFuture<Boolean> isUnsatAsync(Executor pExecutor) {
+    CompletableFuture<Boolean> result = wrapped.isUnsatAsync(pExecutor);
+    // return the original future, such that cancelling it still reaches the solver
+    CompletableFuture<?> unused =
+        result.thenAccept(unsat -> logger.log(Level.FINE, "unsat-check returned:", unsat));
+    return result;
+  }
+
   @Override
   public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
       throws SolverException, InterruptedException {
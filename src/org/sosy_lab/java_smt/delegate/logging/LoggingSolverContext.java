@@ -17,13 +17,16 @@ import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
 import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverPool;
 import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.basicimpl.ProverPools;
 
 /** {@link SolverContext} that wraps all prover environments in their logging versions. */
 public final class LoggingSolverContext implements SolverContext {
 
   private final LogManager logger;
   private final SolverContext delegate;
+  private final ProverPools proverPools = new ProverPools();
 
   public LoggingSolverContext(LogManager pLogger, SolverContext pDelegate) {
     logger = checkNotNull(pLogger);
@@ -56,6 +59,11 @@ public final class LoggingSolverContext implements SolverContext {
         logger, delegate.newOptimizationProverEnvironment(options));
   }
 
+  @Override
+  public ProverPool newProverPool(int pMaxIdleProvers) {
+    return proverPools.newProverPool(this, pMaxIdleProvers);
+  }
+
   @Override
   public String getVersion() {
     return delegate.getVersion();
@@ -73,6 +81,7 @@ public final class LoggingSolverContext implements SolverContext {
 
   @Override
   public void close() {
+    proverPools.close();
     delegate.close();
   }
 }
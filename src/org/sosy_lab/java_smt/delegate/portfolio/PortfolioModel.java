@@ -0,0 +1,106 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.portfolio;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.math.BigInteger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
+import org.sosy_lab.java_smt.api.StringFormula;
+
+/**
+ * Model of the solver that won the last query of a portfolio. The formulas are translated into the
+ * context of that solver for evaluation, and the formulas of the model are translated back.
+ */
+class PortfolioModel implements Model {
+
+  private final Model delegate;
+  private final FormulaManager manager;
+  private final FormulaManager otherManager;
+
+  PortfolioModel(Model pDelegate, FormulaManager pManager, FormulaManager pOtherManager) {
+    delegate = checkNotNull(pDelegate);
+    manager = checkNotNull(pManager);
+    otherManager = checkNotNull(pOtherManager);
+  }
+
+  private <T extends Formula> T toOther(T pF) {
+    return otherManager.translateFrom(pF, manager);
+  }
+
+  private <T extends Formula> T fromOther(T pF) {
+    return manager.translateFrom(pF, otherManager);
+  }
+
+  @Override
+  public <T extends Formula> @Nullable T eval(T pFormula) {
+    T result = delegate.eval(toOther(pFormula));
+    return result == null ? null : fromOther(result);
+  }
+
+  @Override
+  public @Nullable Object evaluate(Formula pF) {
+    return delegate.evaluate(toOther(pF));
+  }
+
+  @Override
+  public @Nullable BigInteger evaluate(IntegerFormula pF) {
+    return delegate.evaluate(toOther(pF));
+  }
+
+  @Override
+  public @Nullable Rational evaluate(RationalFormula pF) {
+    return delegate.evaluate(toOther(pF));
+  }
+
+  @Override
+  public @Nullable Boolean evaluate(BooleanFormula pF) {
+    return delegate.evaluate(toOther(pF));
+  }
+
+  @Override
+  public @Nullable BigInteger evaluate(BitvectorFormula pF) {
+    return delegate.evaluate(toOther(pF));
+  }
+
+  @Override
+  public @Nullable String evaluate(StringFormula pF) {
+    return delegate.evaluate(toOther(pF));
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> asList() {
+    ImmutableList.Builder<ValueAssignment> assignments = ImmutableList.builder();
+    for (ValueAssignment va : delegate.asList()) {
+      assignments.add(
+          new ValueAssignment(
+              fromOther(va.getKey()),
+              fromOther(va.getValueAsFormula()),
+              fromOther(va.getAssignmentAsFormula()),
+              va.getName(),
+              va.getValue(),
+              va.getArgumentsInterpretation()));
+    }
+    return assignments.build();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+}
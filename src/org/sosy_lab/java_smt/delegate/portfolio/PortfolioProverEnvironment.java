@@ -0,0 +1,389 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.portfolio;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Prover that mirrors its assertion stack into one prover per solver of the portfolio and races
+ * them on each satisfiability query. The result of the first solver is returned immediately.
+ * Solvers that lose a race but have already finished stay in sync with the assertion stack. Solvers
+ * that are still running are cancelled, closed in the background once they stop, and lazily
+ * re-created with the current assertion stack before the next query.
+ */
+class PortfolioProverEnvironment implements ProverEnvironment {
+
+  private final PortfolioSolverContext context;
+  private final FormulaManager manager;
+  private final ImmutableList<Solvers> solvers;
+  private final ProverOptions[] options;
+
+  /** Assertion stack in terms of {@link #manager}, the first level is never popped. */
+  private final List<List<BooleanFormula>> stack = new ArrayList<>();
+
+  /** One lane per solver, or null if the lane was cancelled and needs to be re-created. */
+  private final List<@Nullable Lane> lanes = new ArrayList<>();
+
+  /** The lane that answered the last query, used for models and unsat cores. */
+  private @Nullable Lane lastWinner = null;
+
+  private boolean closed = false;
+
+  PortfolioProverEnvironment(
+      PortfolioSolverContext pContext,
+      FormulaManager pManager,
+      List<Solvers> pSolvers,
+      ProverOptions... pOptions) {
+    context = checkNotNull(pContext);
+    manager = checkNotNull(pManager);
+    solvers = ImmutableList.copyOf(pSolvers);
+    options = pOptions.clone();
+    stack.add(new ArrayList<>());
+    for (int i = 0; i < solvers.size(); i++) {
+      lanes.add(null);
+    }
+  }
+
+  /** One solver of the portfolio with its own context, prover, and shutdown manager. */
+  private final class Lane implements AutoCloseable {
+
+    private final Solvers solver;
+    private final ShutdownManager shutdownManager;
+    private final SolverContext laneContext;
+    private final ProverEnvironment prover;
+
+    @SuppressWarnings("resource")
+    Lane(Solvers pSolver) throws InterruptedException {
+      solver = pSolver;
+      shutdownManager = context.createLaneShutdownManager();
+      laneContext = context.createContext(solver, shutdownManager);
+      ProverEnvironment laneProver = null;
+      try {
+        laneProver = laneContext.newProverEnvironment(options);
+        // replay the current assertion stack
+        boolean first = true;
+        for (List<BooleanFormula> level : stack) {
+          if (!first) {
+            laneProver.push();
+          }
+          first = false;
+          for (BooleanFormula f : level) {
+            laneProver.addConstraint(toLane(f));
+          }
+        }
+      } catch (InterruptedException | RuntimeException e) {
+        if (laneProver != null) {
+          laneProver.close();
+        }
+        laneContext.close();
+        throw e;
+      }
+      prover = laneProver;
+    }
+
+    BooleanFormula toLane(BooleanFormula f) {
+      return laneContext.getFormulaManager().translateFrom(f, manager);
+    }
+
+    List<BooleanFormula> toLane(Collection<BooleanFormula> fs) {
+      ImmutableList.Builder<BooleanFormula> result = ImmutableList.builder();
+      for (BooleanFormula f : fs) {
+        result.add(toLane(f));
+      }
+      return result.build();
+    }
+
+    List<BooleanFormula> fromLane(Collection<BooleanFormula> fs) {
+      ImmutableList.Builder<BooleanFormula> result = ImmutableList.builder();
+      for (BooleanFormula f : fs) {
+        result.add(manager.translateFrom(f, laneContext.getFormulaManager()));
+      }
+      return result.build();
+    }
+
+    @Override
+    public void close() {
+      prover.close();
+      laneContext.close();
+    }
+  }
+
+  /**
+   * Interface for one query that is raced on all lanes. The query is prepared for each lane in the
+   * calling thread, because the formula manager of this prover must not be accessed from several
+   * threads, and the returned task is then run on the lane's thread.
+   */
+  @FunctionalInterface
+  private interface LaneQuery {
+    Callable<Boolean> prepare(Lane lane);
+  }
+
+  /** Return all lanes, re-create the cancelled ones. */
+  private List<Lane> getLanes() throws InterruptedException {
+    checkState(!closed);
+    ImmutableList.Builder<Lane> result = ImmutableList.builder();
+    for (int i = 0; i < lanes.size(); i++) {
+      Lane lane = lanes.get(i);
+      if (lane == null) {
+        lane = new Lane(solvers.get(i));
+        lanes.set(i, lane);
+      }
+      result.add(lane);
+    }
+    return result.build();
+  }
+
+  /**
+   * Run the query on all lanes in parallel and return the first result. Lanes that are still
+   * running are cancelled without waiting for them. If all lanes fail, the first failure is
+   * reported.
+   */
+  private boolean race(LaneQuery query) throws SolverException, InterruptedException {
+    List<Lane> currentLanes = getLanes();
+    lastWinner = null;
+    CompletionService<Boolean> completionService =
+        new ExecutorCompletionService<>(context.getExecutor());
+    List<Future<Boolean>> futures = new ArrayList<>();
+    List<Lane> futureLanes = new ArrayList<>();
+    List<Callable<Boolean>> tasks = new ArrayList<>(currentLanes.size());
+    for (Lane lane : currentLanes) {
+      tasks.add(query.prepare(lane));
+    }
+    for (int i = 0; i < currentLanes.size(); i++) {
+      futures.add(completionService.submit(tasks.get(i)));
+      futureLanes.add(currentLanes.get(i));
+    }
+
+    Throwable firstFailure = null;
+    try {
+      for (int i = 0; i < futures.size(); i++) {
+        Future<Boolean> done = completionService.take();
+        try {
+          boolean result = done.get();
+          Lane winner = futureLanes.get(futures.indexOf(done));
+          lastWinner = winner;
+          context.registerWin(winner.solver);
+          return result;
+        } catch (ExecutionException e) {
+          if (firstFailure == null) {
+            firstFailure = e.getCause();
+          }
+        }
+      }
+    } finally {
+      cancelLosers(futures, futureLanes);
+    }
+
+    context.getShutdownNotifier().shutdownIfNecessary();
+    Throwables.throwIfInstanceOf(firstFailure, SolverException.class);
+    Throwables.throwIfInstanceOf(firstFailure, InterruptedException.class);
+    Throwables.throwIfInstanceOf(firstFailure, Error.class);
+    throw new SolverException("All solvers of the portfolio failed", firstFailure);
+  }
+
+  /**
+   * Cancel all lanes that are still running. A cancelled lane is removed from the portfolio and
+   * closed in the background as soon as its query stops. Lanes that already finished their query
+   * stay in sync with the assertion stack and are kept.
+   */
+  private void cancelLosers(List<Future<Boolean>> futures, List<Lane> futureLanes) {
+    for (int i = 0; i < futures.size(); i++) {
+      Future<Boolean> future = futures.get(i);
+      Lane lane = futureLanes.get(i);
+      if (!future.isDone() || lane.shutdownManager.getNotifier().shouldShutdown()) {
+        lane.shutdownManager.requestShutdown("query answered by other solver of portfolio");
+        lanes.set(lanes.indexOf(lane), null);
+        closeWhenDone(lane, future);
+      }
+    }
+  }
+
+  /** Close the lane after its running query stops, without blocking the calling thread. */
+  private void closeWhenDone(Lane lane, Future<?> future) {
+    @SuppressWarnings("unused")
+    Future<?> unused =
+        context
+            .getExecutor()
+            .submit(
+                () -> {
+                  try {
+                    Uninterruptibles.getUninterruptibly(future);
+                  } catch (ExecutionException e) {
+                    // ignore, the result of a cancelled solver is not relevant
+                  }
+                  lane.close();
+                });
+  }
+
+  private Lane getLastWinner() {
+    checkState(lastWinner != null, "no solver of the portfolio has answered the last query");
+    return lastWinner;
+  }
+
+  private void invalidateLastWinner() {
+    lastWinner = null;
+  }
+
+  @Override
+  public void push() throws InterruptedException {
+    invalidateLastWinner();
+    stack.add(new ArrayList<>());
+    for (Lane lane : lanes) {
+      if (lane != null) {
+        lane.prover.push();
+      }
+    }
+  }
+
+  @Override
+  public void pop() {
+    checkState(stack.size() > 1, "cannot pop from empty stack");
+    invalidateLastWinner();
+    stack.remove(stack.size() - 1);
+    for (Lane lane : lanes) {
+      if (lane != null) {
+        lane.prover.pop();
+      }
+    }
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula constraint) throws InterruptedException {
+    invalidateLastWinner();
+    stack.get(stack.size() - 1).add(constraint);
+    for (Lane lane : lanes) {
+      if (lane != null) {
+        lane.prover.addConstraint(lane.toLane(constraint));
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public int size() {
+    return stack.size() - 1;
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    return race(lane -> lane.prover::isUnsat);
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> assumptions)
+      throws SolverException, InterruptedException {
+    return race(
+        lane -> {
+          List<BooleanFormula> laneAssumptions = lane.toLane(assumptions);
+          return () -> lane.prover.isUnsatWithAssumptions(laneAssumptions);
+        });
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public Model getModel() throws SolverException {
+    Lane winner = getLastWinner();
+    return new PortfolioModel(
+        winner.prover.getModel(), manager, winner.laneContext.getFormulaManager());
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    Lane winner = getLastWinner();
+    return winner.fromLane(winner.prover.getUnsatCore());
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> assumptions) throws SolverException, InterruptedException {
+    if (isUnsatWithAssumptions(assumptions)) {
+      Lane winner = getLastWinner();
+      Optional<List<BooleanFormula>> core =
+          winner.prover.unsatCoreOverAssumptions(winner.toLane(assumptions));
+      if (core.isPresent()) {
+        return Optional.of(winner.fromLane(core.orElseThrow()));
+      }
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> callback, List<BooleanFormula> important)
+      throws InterruptedException, SolverException {
+    // AllSat is not raced, because the callback must not be called from several solvers.
+    Lane lane = getLanes().get(0);
+    return lane.prover.allSat(
+        new AllSatCallback<R>() {
+          @Override
+          public void apply(List<BooleanFormula> model) {
+            callback.apply(lane.fromLane(model));
+          }
+
+          @Override
+          public R getResult() throws InterruptedException {
+            return callback.getResult();
+          }
+        },
+        lane.toLane(important));
+  }
+
+  /** Merge the statistics of all lanes, the keys are prefixed with the name of the solver. */
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    Map<String, String> statistics = new LinkedHashMap<>();
+    for (Lane lane : lanes) {
+      if (lane != null) {
+        lane.prover
+            .getStatistics()
+            .forEach((key, value) -> statistics.put(lane.solver + "." + key, value));
+      }
+    }
+    return ImmutableMap.copyOf(statistics);
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      for (Lane lane : lanes) {
+        if (lane != null) {
+          lane.close();
+        }
+      }
+      lanes.clear();
+    }
+  }
+}
@@ -0,0 +1,144 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.portfolio;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverPool;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.basicimpl.ProverPools;
+import org.sosy_lab.java_smt.delegate.IndependentSolverContexts;
+import org.sosy_lab.java_smt.delegate.IndependentSolverContexts.SolverContextCreator;
+
+/**
+ * A {@link SolverContext} that builds all formulas with the wrapped context, but solves the
+ * queries of each {@link ProverEnvironment} with a portfolio of solvers running in parallel.
+ *
+ * <p>Each solver of the portfolio uses its own context for each prover, such that a solver can be
+ * cancelled via its own {@link ShutdownNotifier} as soon as another solver has answered the query,
+ * without affecting any other prover. Interpolation and optimization are not raced and directly
+ * handled by the wrapped context.
+ */
+public class PortfolioSolverContext implements SolverContext {
+
+  private final SolverContext delegate;
+  private final ProverPools proverPools = new ProverPools();
+  private final ImmutableList<Solvers> solvers;
+  private final IndependentSolverContexts laneContexts;
+  private final Map<Solvers, AtomicInteger> wins = new EnumMap<>(Solvers.class);
+
+  public PortfolioSolverContext(
+      SolverContext pDelegate,
+      List<Solvers> pSolvers,
+      SolverContextCreator pContextCreator,
+      ShutdownNotifier pShutdownNotifier) {
+    delegate = checkNotNull(pDelegate);
+    solvers = ImmutableList.copyOf(pSolvers);
+    checkArgument(!solvers.isEmpty(), "portfolio requires at least one solver");
+    laneContexts =
+        IndependentSolverContexts.withCachedThreadPool(
+            pContextCreator, pShutdownNotifier, "portfolio");
+    for (Solvers solver : solvers) {
+      wins.put(solver, new AtomicInteger());
+    }
+  }
+
+  /**
+   * Create a new context for one solver of the portfolio. The returned {@link ShutdownManager}
+   * cancels only this context, and is also triggered by the shutdown of the whole portfolio.
+   */
+  SolverContext createContext(Solvers solver, ShutdownManager laneShutdownManager) {
+    return laneContexts.createContext(solver, laneShutdownManager.getNotifier());
+  }
+
+  ShutdownManager createLaneShutdownManager() {
+    return laneContexts.createShutdownManager();
+  }
+
+  ShutdownNotifier getShutdownNotifier() {
+    return laneContexts.getShutdownNotifier();
+  }
+
+  ExecutorService getExecutor() {
+    return laneContexts.getExecutor();
+  }
+
+  void registerWin(Solvers solver) {
+    wins.get(solver).incrementAndGet();
+  }
+
+  @Override
+  public FormulaManager getFormulaManager() {
+    return delegate.getFormulaManager();
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public ProverEnvironment newProverEnvironment(ProverOptions... pOptions) {
+    return new PortfolioProverEnvironment(this, delegate.getFormulaManager(), solvers, pOptions);
+  }
+
+  @Override
+  public InterpolatingProverEnvironment<?> newProverEnvironmentWithInterpolation(
+      ProverOptions... pOptions) {
+    return delegate.newProverEnvironmentWithInterpolation(pOptions);
+  }
+
+  @Override
+  public OptimizationProverEnvironment newOptimizationProverEnvironment(ProverOptions... pOptions) {
+    return delegate.newOptimizationProverEnvironment(pOptions);
+  }
+
+  @Override
+  public ProverPool newProverPool(int pMaxIdleProvers) {
+    return proverPools.newProverPool(this, pMaxIdleProvers);
+  }
+
+  @Override
+  public String getVersion() {
+    return delegate.getVersion() + " (portfolio of " + solvers + ")";
+  }
+
+  @Override
+  public Solvers getSolverName() {
+    return delegate.getSolverName();
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+    builder.putAll(delegate.getStatistics());
+    for (Map.Entry<Solvers, AtomicInteger> entry : wins.entrySet()) {
+      builder.put("portfolio wins of " + entry.getKey(), entry.getValue().toString());
+    }
+    return builder.buildOrThrow();
+  }
+
+  @Override
+  public void close() {
+    proverPools.close();
+    laneContexts.close();
+    delegate.close();
+  }
+}
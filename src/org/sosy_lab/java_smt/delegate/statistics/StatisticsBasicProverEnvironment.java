@@ -13,6 +13,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment;
 import org.sosy_lab.java_smt.api.BooleanFormula;
@@ -68,6 +70,22 @@ class StatisticsBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
     }
   }
 
+  @Override
+  public CompletableFuture<Boolean> isUnsatAsync(Executor pExecutor) {
+    // the check runs on the executor, thus we measure the time there
+    return delegate.isUnsatAsync(
+        task ->
+            pExecutor.execute(
+                () -> {
+                  unsatTimer.start();
+                  try {
+                    task.run();
+                  } finally {
+                    unsatTimer.stop();
+                  }
+                }));
+  }
+
   @Override
   public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
       throws SolverException, InterruptedException {
@@ -12,8 +12,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
+import java.io.Reader;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.common.Appenders;
 import org.sosy_lab.java_smt.api.ArrayFormulaManager;
@@ -23,6 +25,7 @@ import org.sosy_lab.java_smt.api.BooleanFormulaManager;
 import org.sosy_lab.java_smt.api.FloatingPointFormulaManager;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaTransformationSession;
 import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.FunctionDeclaration;
 import org.sosy_lab.java_smt.api.IntegerFormulaManager;
@@ -124,6 +127,12 @@ class StatisticsFormulaManager implements FormulaManager {
     return delegate.parse(pS);
   }
 
+  @Override
+  public void parseAssertions(Reader pInput, Consumer<BooleanFormula> pConsumer)
+      throws IOException {
+    delegate.parseAssertions(pInput, pConsumer);
+  }
+
   @Override
   public Appender dumpFormula(BooleanFormula pT) {
     return new Appenders.AbstractAppender() {
@@ -163,6 +172,12 @@ class StatisticsFormulaManager implements FormulaManager {
     return delegate.transformRecursively(pF, pFormulaVisitor);
   }
 
+  @Override
+  public FormulaTransformationSession newTransformationSession(
+      FormulaTransformationVisitor pFormulaVisitor) {
+    return delegate.newTransformationSession(pFormulaVisitor);
+  }
+
   @Override
   public ImmutableMap<String, Formula> extractVariables(Formula pF) {
     return delegate.extractVariables(pF);
@@ -180,7 +195,7 @@ class StatisticsFormulaManager implements FormulaManager {
   }
 
   @Override
-  public BooleanFormula translateFrom(BooleanFormula pFormula, FormulaManager pOtherContext) {
+  public <T extends Formula> T translateFrom(T pFormula, FormulaManager pOtherContext) {
     return delegate.translateFrom(pFormula, pOtherContext);
   }
 
@@ -11,7 +11,10 @@ package org.sosy_lab.java_smt.delegate.statistics;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -74,12 +77,30 @@ class StatisticsModel implements Model {
     return delegate.evaluate(pF);
   }
 
+  @Override
+  public <T extends Formula> ImmutableMap<T, Object> evaluateAll(Collection<T> pFormulas) {
+    stats.modelEvaluations.getAndAdd(pFormulas.size());
+    return delegate.evaluateAll(pFormulas);
+  }
+
   @Override
   public ImmutableList<ValueAssignment> asList() {
     stats.modelListings.getAndIncrement();
     return delegate.asList();
   }
 
+  @Override
+  public Iterator<ValueAssignment> iterator() {
+    stats.modelListings.getAndIncrement();
+    return delegate.iterator();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getAssignments(String pName) {
+    stats.modelListings.getAndIncrement();
+    return delegate.getAssignments(pName);
+  }
+
   @Override
   public void close() {
     delegate.close();
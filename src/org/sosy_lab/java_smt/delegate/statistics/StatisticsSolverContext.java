@@ -17,11 +17,14 @@ import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
 import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverPool;
 import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.basicimpl.ProverPools;
 
 public class StatisticsSolverContext implements SolverContext {
 
   private final SolverContext delegate;
+  private final ProverPools proverPools = new ProverPools();
   private final SolverStatistics stats = new SolverStatistics();
 
   public StatisticsSolverContext(SolverContext pDelegate) {
@@ -54,6 +57,11 @@ public class StatisticsSolverContext implements SolverContext {
         delegate.newOptimizationProverEnvironment(pOptions), stats);
   }
 
+  @Override
+  public ProverPool newProverPool(int pMaxIdleProvers) {
+    return proverPools.newProverPool(this, pMaxIdleProvers);
+  }
+
   @Override
   public String getVersion() {
     return delegate.getVersion();
@@ -76,6 +84,7 @@ public class StatisticsSolverContext implements SolverContext {
 
   @Override
   public void close() {
+    proverPools.close();
     delegate.close();
   }
 
@@ -0,0 +1,93 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.synchronize;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+import org.sosy_lab.java_smt.api.SolverContext;
+
+/**
+ * Pool of solver contexts for provers that run separately from the shared context. Creating a
+ * context is expensive, thus the context of a closed prover is kept for the next prover instead of
+ * creating a new one. All contexts of the pool are closed together with the pool.
+ *
+ * <p>A context is not reset when it is re-used. The symbols that were declared by an earlier
+ * prover of the context stay known, which only matters for the memory usage and for symbols that
+ * are re-declared with a different type.
+ */
+final class SolverContextPool implements AutoCloseable {
+
+  private final Supplier<SolverContext> contextFactory;
+  private final int maxUnusedContexts;
+
+  /** Contexts without an open prover, the most recently used one first. Guarded by this. */
+  private final Deque<SolverContext> unusedContexts = new ArrayDeque<>();
+
+  /** All open contexts of this pool. Guarded by this. */
+  private final List<SolverContext> allContexts = new ArrayList<>();
+
+  private boolean closed = false;
+
+  SolverContextPool(Supplier<SolverContext> pContextFactory, int pMaxUnusedContexts) {
+    contextFactory = checkNotNull(pContextFactory);
+    maxUnusedContexts = pMaxUnusedContexts;
+  }
+
+  /** Return an unused context, or a new one if there is none. */
+  SolverContext acquire() {
+    synchronized (this) {
+      checkState(!closed);
+      SolverContext context = unusedContexts.pollFirst();
+      if (context != null) {
+        return context;
+      }
+    }
+    // creating a context can take some time, thus we do not block other threads meanwhile
+    SolverContext context = contextFactory.get();
+    synchronized (this) {
+      if (closed) {
+        context.close();
+        throw new IllegalStateException("pool of solver contexts was closed");
+      }
+      allContexts.add(context);
+    }
+    return context;
+  }
+
+  /** Return a context that is no longer used by a prover. */
+  synchronized void release(SolverContext pContext) {
+    if (closed) {
+      return; // already closed together with the pool
+    }
+    if (unusedContexts.size() < maxUnusedContexts) {
+      unusedContexts.addFirst(pContext);
+    } else {
+      allContexts.remove(pContext);
+      pContext.close();
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    if (!closed) {
+      closed = true;
+      for (SolverContext context : allContexts) {
+        context.close();
+      }
+      allContexts.clear();
+      unusedContexts.clear();
+    }
+  }
+}
@@ -14,6 +14,8 @@ import com.google.common.collect.ImmutableMap;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment;
 import org.sosy_lab.java_smt.api.BooleanFormula;
@@ -66,6 +68,19 @@ class SynchronizedBasicProverEnvironment<T> implements BasicProverEnvironment<T>
     }
   }
 
+  @Override
+  public CompletableFuture<Boolean> isUnsatAsync(Executor pExecutor) {
+    // the check runs on the executor, thus we acquire the lock there
+    return delegate.isUnsatAsync(
+        task ->
+            pExecutor.execute(
+                () -> {
+                  synchronized (sync) {
+                    task.run();
+                  }
+                }));
+  }
+
   @Override
   public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
       throws SolverException, InterruptedException {
@@ -15,6 +15,8 @@ import com.google.common.collect.ImmutableMap;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment;
 import org.sosy_lab.java_smt.api.BooleanFormula;
@@ -30,15 +32,22 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
   final FormulaManager otherManager;
   final SolverContext sync;
 
+  /** Called after closing the prover, e.g., to release the context of the prover. */
+  private final Runnable onClose;
+
+  private boolean closed = false;
+
   SynchronizedBasicProverEnvironmentWithContext(
       BasicProverEnvironment<T> pDelegate,
       SolverContext pSync,
       FormulaManager pManager,
-      FormulaManager pOtherManager) {
+      FormulaManager pOtherManager,
+      Runnable pOnClose) {
     delegate = checkNotNull(pDelegate);
     sync = checkNotNull(pSync);
     manager = checkNotNull(pManager);
     otherManager = checkNotNull(pOtherManager);
+    onClose = checkNotNull(pOnClose);
   }
 
   List<BooleanFormula> translate(
@@ -83,6 +92,11 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
     return delegate.isUnsat();
   }
 
+  @Override
+  public CompletableFuture<Boolean> isUnsatAsync(Executor pExecutor) {
+    return delegate.isUnsatAsync(pExecutor);
+  }
+
   @Override
   public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
       throws SolverException, InterruptedException {
@@ -124,8 +138,13 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
   @Override
   public void close() {
     synchronized (sync) {
+      if (closed) {
+        return;
+      }
+      closed = true;
       delegate.close();
     }
+    onClose.run();
   }
 
   @Override
@@ -12,8 +12,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
+import java.io.Reader;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.common.Appenders;
 import org.sosy_lab.java_smt.api.ArrayFormulaManager;
@@ -23,6 +25,7 @@ import org.sosy_lab.java_smt.api.BooleanFormulaManager;
 import org.sosy_lab.java_smt.api.FloatingPointFormulaManager;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaTransformationSession;
 import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.FunctionDeclaration;
 import org.sosy_lab.java_smt.api.IntegerFormulaManager;
@@ -155,6 +158,14 @@ class SynchronizedFormulaManager implements FormulaManager {
     }
   }
 
+  @Override
+  public void parseAssertions(Reader pInput, Consumer<BooleanFormula> pConsumer)
+      throws IOException {
+    synchronized (sync) {
+      delegate.parseAssertions(pInput, pConsumer);
+    }
+  }
+
   @Override
   public Appender dumpFormula(BooleanFormula pT) {
     return new Appenders.AbstractAppender() {
@@ -206,6 +217,30 @@ class SynchronizedFormulaManager implements FormulaManager {
     }
   }
 
+  @Override
+  public FormulaTransformationSession newTransformationSession(
+      FormulaTransformationVisitor pFormulaVisitor) {
+    final FormulaTransformationSession session;
+    synchronized (sync) {
+      session = delegate.newTransformationSession(pFormulaVisitor);
+    }
+    return new FormulaTransformationSession() {
+      @Override
+      public <T extends Formula> T transform(T pF) {
+        synchronized (sync) {
+          return session.transform(pF);
+        }
+      }
+
+      @Override
+      public void close() {
+        synchronized (sync) {
+          session.close();
+        }
+      }
+    };
+  }
+
   @Override
   public ImmutableMap<String, Formula> extractVariables(Formula pF) {
     synchronized (sync) {
@@ -229,7 +264,7 @@ class SynchronizedFormulaManager implements FormulaManager {
   }
 
   @Override
-  public BooleanFormula translateFrom(BooleanFormula pFormula, FormulaManager pOtherContext) {
+  public <T extends Formula> T translateFrom(T pFormula, FormulaManager pOtherContext) {
     synchronized (sync) {
       return delegate.translateFrom(pFormula, pOtherContext);
     }
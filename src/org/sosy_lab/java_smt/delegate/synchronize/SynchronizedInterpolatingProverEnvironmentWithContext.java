@@ -28,8 +28,9 @@ class SynchronizedInterpolatingProverEnvironmentWithContext<T>
       InterpolatingProverEnvironment<T> pDelegate,
       SolverContext pSync,
       FormulaManager pManager,
-      FormulaManager pOtherManager) {
-    super(pDelegate, pSync, pManager, pOtherManager);
+      FormulaManager pOtherManager,
+      Runnable pOnClose) {
+    super(pDelegate, pSync, pManager, pOtherManager, pOnClose);
     delegate = checkNotNull(pDelegate);
   }
 
@@ -10,8 +10,12 @@ package org.sosy_lab.java_smt.delegate.synchronize;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -82,6 +86,13 @@ class SynchronizedModel implements Model {
     }
   }
 
+  @Override
+  public <T extends Formula> ImmutableMap<T, Object> evaluateAll(Collection<T> pFormulas) {
+    synchronized (sync) {
+      return delegate.evaluateAll(pFormulas);
+    }
+  }
+
   @Override
   public ImmutableList<ValueAssignment> asList() {
     synchronized (sync) {
@@ -89,6 +100,30 @@ class SynchronizedModel implements Model {
     }
   }
 
+  @Override
+  public Iterator<ValueAssignment> iterator() {
+    final Iterator<ValueAssignment> iterator;
+    synchronized (sync) {
+      iterator = delegate.iterator();
+    }
+    // the delegate might compute the assignments lazily, thus we lock each step
+    return new AbstractIterator<>() {
+      @Override
+      protected ValueAssignment computeNext() {
+        synchronized (sync) {
+          return iterator.hasNext() ? iterator.next() : endOfData();
+        }
+      }
+    };
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getAssignments(String pName) {
+    synchronized (sync) {
+      return delegate.getAssignments(pName);
+    }
+  }
+
   @Override
   public void close() {
     synchronized (sync) {
@@ -19,7 +19,8 @@ class SynchronizedProverEnvironmentWithContext
       ProverEnvironment pDelegate,
       SolverContext pSync,
       FormulaManager pManager,
-      FormulaManager pOtherManager) {
-    super(pDelegate, pSync, pManager, pOtherManager);
+      FormulaManager pOtherManager,
+      Runnable pOnClose) {
+    super(pDelegate, pSync, pManager, pOtherManager, pOnClose);
   }
 }
@@ -12,8 +12,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -24,7 +26,9 @@ import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
 import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverPool;
 import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.basicimpl.ProverPools;
 
 @Options(prefix = "solver.synchronized")
 public class SynchronizedSolverContext implements SolverContext {
@@ -36,11 +40,22 @@ public class SynchronizedSolverContext implements SolverContext {
               + "This allows more parallelity when solving larger queries.")
   private boolean useSeperateProvers = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Maximum number of unused contexts of separate provers that are kept for re-use. "
+              + "Creating a new context for each prover is expensive. A re-used context still "
+              + "knows the symbols declared by earlier provers.")
+  @IntegerOption(min = 0)
+  private int maxUnusedSeperateContexts = 8;
+
   private final SolverContext delegate;
+  private final ProverPools proverPools = new ProverPools();
   private final SolverContext sync;
   private final Configuration config;
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
+  private final @Nullable SolverContextPool seperateContexts;
 
   public SynchronizedSolverContext(
       Configuration pConfig,
@@ -54,6 +69,10 @@ public class SynchronizedSolverContext implements SolverContext {
     config = pConfig;
     logger = pLogger;
     shutdownNotifier = pShutdownNotifier;
+    seperateContexts =
+        useSeperateProvers
+            ? new SolverContextPool(this::createOtherContext, maxUnusedSeperateContexts)
+            : null;
   }
 
   @SuppressWarnings("resource")
@@ -80,37 +99,51 @@ public class SynchronizedSolverContext implements SolverContext {
   @SuppressWarnings("resource")
   @Override
   public ProverEnvironment newProverEnvironment(ProverOptions... pOptions) {
-    synchronized (sync) {
-      if (useSeperateProvers) {
-        SolverContext otherContext = createOtherContext();
+    SolverContextPool pool = seperateContexts;
+    if (pool != null) {
+      // the separate context is used only by the new prover, thus we need no lock here
+      SolverContext otherContext = pool.acquire();
+      try {
         return new SynchronizedProverEnvironmentWithContext(
             otherContext.newProverEnvironment(pOptions),
             sync,
             delegate.getFormulaManager(),
-            otherContext.getFormulaManager());
-      } else {
-        return new SynchronizedProverEnvironment(delegate.newProverEnvironment(pOptions), delegate);
+            otherContext.getFormulaManager(),
+            () -> pool.release(otherContext));
+      } catch (RuntimeException e) {
+        pool.release(otherContext);
+        throw e;
       }
     }
+    synchronized (sync) {
+      return new SynchronizedProverEnvironment(delegate.newProverEnvironment(pOptions), delegate);
+    }
   }
 
   @SuppressWarnings("resource")
   @Override
   public InterpolatingProverEnvironment<?> newProverEnvironmentWithInterpolation(
       ProverOptions... pOptions) {
-    synchronized (sync) {
-      if (useSeperateProvers) {
-        SolverContext otherContext = createOtherContext();
+    SolverContextPool pool = seperateContexts;
+    if (pool != null) {
+      // the separate context is used only by the new prover, thus we need no lock here
+      SolverContext otherContext = pool.acquire();
+      try {
         return new SynchronizedInterpolatingProverEnvironmentWithContext<>(
             otherContext.newProverEnvironmentWithInterpolation(pOptions),
             sync,
             delegate.getFormulaManager(),
-            otherContext.getFormulaManager());
-      } else {
-        return new SynchronizedInterpolatingProverEnvironment<>(
-            delegate.newProverEnvironmentWithInterpolation(pOptions), delegate);
+            otherContext.getFormulaManager(),
+            () -> pool.release(otherContext));
+      } catch (RuntimeException e) {
+        pool.release(otherContext);
+        throw e;
       }
     }
+    synchronized (sync) {
+      return new SynchronizedInterpolatingProverEnvironment<>(
+          delegate.newProverEnvironmentWithInterpolation(pOptions), delegate);
+    }
   }
 
   @SuppressWarnings("resource")
@@ -124,6 +157,11 @@ public class SynchronizedSolverContext implements SolverContext {
     }
   }
 
+  @Override
+  public ProverPool newProverPool(int pMaxIdleProvers) {
+    return proverPools.newProverPool(this, pMaxIdleProvers);
+  }
+
   @Override
   public String getVersion() {
     synchronized (sync) {
@@ -147,6 +185,10 @@ public class SynchronizedSolverContext implements SolverContext {
 
   @Override
   public void close() {
+    proverPools.close();
+    if (seperateContexts != null) {
+      seperateContexts.close();
+    }
     synchronized (sync) {
       delegate.close();
     }
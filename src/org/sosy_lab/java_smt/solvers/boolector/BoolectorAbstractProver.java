@@ -81,6 +81,7 @@ abstract class BoolectorAbstractProver<T> extends AbstractProverWithAllSat<T> {
       closed = true;
       Preconditions.checkState(isAnyStackAlive.getAndSet(false));
     }
+    super.close();
   }
 
   /*
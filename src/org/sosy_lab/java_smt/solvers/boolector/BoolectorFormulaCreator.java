@@ -81,6 +81,17 @@ public class BoolectorFormulaCreator extends FormulaCreator<Long, Long, Long, Lo
     return BoolectorFormulaManager.getBtorTerm(pT);
   }
 
+  @Override
+  protected boolean hasNativeTermIds() {
+    return true;
+  }
+
+  /** Boolector uses structural hashing for its nodes, thus the pointer is unique. */
+  @Override
+  protected long getNativeTermId(Formula pFormula) {
+    return BoolectorFormulaManager.getBtorTerm(pFormula);
+  }
+
   @Override
   public FormulaType<?> getFormulaType(Long pFormula) {
     long sort = BtorJNI.boolector_get_sort(getEnv(), pFormula);
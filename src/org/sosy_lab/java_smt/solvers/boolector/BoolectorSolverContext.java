@@ -189,6 +189,7 @@ public final class BoolectorSolverContext extends AbstractSolverContext {
 
   @Override
   public void close() {
+    closeProverPools();
     if (!closed) {
       closed = true;
       BtorJNI.boolector_delete(creator.getEnv());
@@ -116,6 +116,7 @@ public final class CVC4SolverContext extends AbstractSolverContext {
 
   @Override
   public void close() {
+    closeProverPools();
     if (creator != null) {
       creator.getEnv().delete();
       creator = null;
@@ -61,10 +61,22 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
   // CVC4 does not support separation logic in incremental mode.
   private final boolean incremental;
 
+  /**
+   * Tracks the imported formulas on the stack, if the solver is not incremental. Then each
+   * satisfiability check uses a new SmtEngine and we avoid importing all formulas again.
+   */
+  private final Deque<List<Expr>> importedFormulas = new ArrayDeque<>();
+
+  /** The result of the last satisfiability check, if the solver is not incremental. */
+  private @Nullable Boolean lastSatResult = null;
+
+  private final int randomSeed;
+  private final Set<ProverOptions> options;
+
   protected CVC4TheoremProver(
       CVC4FormulaCreator pFormulaCreator,
       ShutdownNotifier pShutdownNotifier,
-      int randomSeed,
+      int pRandomSeed,
       Set<ProverOptions> pOptions,
       BooleanFormulaManager pBmgr) {
     super(pOptions, pBmgr, pShutdownNotifier);
@@ -73,16 +85,19 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
     smtEngine = new SmtEngine(exprManager);
     incremental = !enableSL;
     assertedFormulas.push(new ArrayList<>()); // create initial level
+    importedFormulas.push(new ArrayList<>());
+    randomSeed = pRandomSeed;
+    options = pOptions;
 
-    setOptions(randomSeed, pOptions);
+    setOptions();
   }
 
-  private void setOptions(int randomSeed, Set<ProverOptions> pOptions) {
+  private void setOptions() {
     smtEngine.setOption("incremental", new SExpr(incremental));
-    if (pOptions.contains(ProverOptions.GENERATE_MODELS)) {
+    if (options.contains(ProverOptions.GENERATE_MODELS)) {
       smtEngine.setOption("produce-models", new SExpr(true));
     }
-    if (pOptions.contains(ProverOptions.GENERATE_UNSAT_CORE)) {
+    if (options.contains(ProverOptions.GENERATE_UNSAT_CORE)) {
       smtEngine.setOption("produce-unsat-cores", new SExpr(true));
     }
     smtEngine.setOption("produce-assertions", new SExpr(true));
@@ -118,6 +133,8 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
     assertedFormulas.push(new ArrayList<>());
     if (incremental) {
       smtEngine.push();
+    } else {
+      importedFormulas.push(new ArrayList<>());
     }
   }
 
@@ -129,6 +146,8 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
     Preconditions.checkState(!assertedFormulas.isEmpty(), "initial level must remain until close");
     if (incremental) {
       smtEngine.pop();
+    } else {
+      importedFormulas.pop();
     }
   }
 
@@ -146,6 +165,8 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
     assertedFormulas.peek().add(exp);
     if (incremental) {
       smtEngine.assertFormula(importExpr(exp));
+    } else {
+      importedFormulas.peek().add(importExpr(exp));
     }
     return null;
   }
@@ -176,13 +197,8 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
 
   private void setChanged() {
     closeAllEvaluators();
-    if (!changedSinceLastSatQuery) {
-      changedSinceLastSatQuery = true;
-      if (!incremental) {
-        // create a new clean smtEngine
-        smtEngine = new SmtEngine(exprManager);
-      }
-    }
+    changedSinceLastSatQuery = true;
+    lastSatResult = null;
   }
 
   @Override
@@ -199,9 +215,15 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
     closeAllEvaluators();
     changedSinceLastSatQuery = false;
     if (!incremental) {
-      for (Expr expr : getAssertedExpressions()) {
-        smtEngine.assertFormula(importExpr(expr));
+      final Boolean cachedResult = lastSatResult;
+      if (cachedResult != null) {
+        // the stack is unchanged and CVC4 does not allow a second query on the same SmtEngine
+        return cachedResult;
       }
+      // create a new clean smtEngine and assert the already imported formulas
+      smtEngine = new SmtEngine(exprManager);
+      setOptions();
+      importedFormulas.forEach(level -> level.forEach(smtEngine::assertFormula));
     }
 
     Result result;
@@ -210,7 +232,11 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
       result = smtEngine.checkSat();
     }
     shutdownNotifier.shutdownIfNecessary();
-    return convertSatResult(result);
+    boolean isUnsat = convertSatResult(result);
+    if (!incremental) {
+      lastSatResult = isUnsat;
+    }
+    return isUnsat;
   }
 
   private boolean convertSatResult(Result result) throws InterruptedException, SolverException {
@@ -264,6 +290,7 @@ class CVC4TheoremProver extends AbstractProverWithAllSat<Void>
   public void close() {
     if (!closed) {
       assertedFormulas.clear();
+      importedFormulas.clear();
       exportMapping.delete();
       // smtEngine.delete();
       exprManager.delete();
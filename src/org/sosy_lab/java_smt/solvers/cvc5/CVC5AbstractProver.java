@@ -36,7 +36,7 @@ public class CVC5AbstractProver<T> extends AbstractProverWithAllSat<T> {
 
   private final FormulaManager mgr;
   protected final CVC5FormulaCreator creator;
-  protected final Solver solver;
+  protected Solver solver; // final except for SL theory
   private boolean changedSinceLastSatQuery = false;
 
   /** Tracks formulas on the stack, needed for model generation. */
@@ -45,10 +45,16 @@ public class CVC5AbstractProver<T> extends AbstractProverWithAllSat<T> {
   // TODO: does CVC5 support separation logic in incremental mode?
   protected final boolean incremental;
 
+  /** The result of the last satisfiability check, if the solver is not incremental. */
+  private @Nullable Boolean lastSatResult = null;
+
+  private final int randomSeed;
+  private final Set<ProverOptions> options;
+
   protected CVC5AbstractProver(
       CVC5FormulaCreator pFormulaCreator,
       ShutdownNotifier pShutdownNotifier,
-      @SuppressWarnings("unused") int randomSeed,
+      int pRandomSeed,
       Set<ProverOptions> pOptions,
       FormulaManager pMgr) {
     super(pOptions, pMgr.getBooleanFormulaManager(), pShutdownNotifier);
@@ -57,20 +63,22 @@ public class CVC5AbstractProver<T> extends AbstractProverWithAllSat<T> {
     creator = pFormulaCreator;
     incremental = !enableSL;
     assertedFormulas.push(new ArrayList<>()); // create initial level
+    randomSeed = pRandomSeed;
+    options = pOptions;
 
     solver = new Solver();
 
-    setSolverOptions(randomSeed, pOptions);
+    setSolverOptions();
   }
 
-  private void setSolverOptions(int randomSeed, Set<ProverOptions> pOptions) {
+  private void setSolverOptions() {
     if (incremental) {
       solver.setOption("incremental", "true");
     }
-    if (pOptions.contains(ProverOptions.GENERATE_MODELS)) {
+    if (options.contains(ProverOptions.GENERATE_MODELS)) {
       solver.setOption("produce-models", "true");
     }
-    if (pOptions.contains(ProverOptions.GENERATE_UNSAT_CORE)) {
+    if (options.contains(ProverOptions.GENERATE_UNSAT_CORE)) {
       solver.setOption("produce-unsat-cores", "true");
     }
     solver.setOption("produce-assertions", "true");
@@ -155,6 +163,7 @@ public class CVC5AbstractProver<T> extends AbstractProverWithAllSat<T> {
   protected void setChanged() {
     if (!changedSinceLastSatQuery) {
       changedSinceLastSatQuery = true;
+      lastSatResult = null;
       closeAllEvaluators();
     }
   }
@@ -173,13 +182,26 @@ public class CVC5AbstractProver<T> extends AbstractProverWithAllSat<T> {
     closeAllEvaluators();
     changedSinceLastSatQuery = false;
     if (!incremental) {
+      final Boolean cachedResult = lastSatResult;
+      if (cachedResult != null) {
+        // the stack is unchanged and CVC5 does not allow a second query on the same solver
+        return cachedResult;
+      }
+      // create a new clean solver, the terms are shared and need not be imported
+      solver.deletePointer();
+      solver = new Solver();
+      setSolverOptions();
       getAssertedExpressions().forEach(solver::assertFormula);
     }
 
     /* Shutdown currently not possible in CVC5. */
     Result result = solver.checkSat();
     shutdownNotifier.shutdownIfNecessary();
-    return convertSatResult(result);
+    boolean isUnsat = convertSatResult(result);
+    if (!incremental) {
+      lastSatResult = isUnsat;
+    }
+    return isUnsat;
   }
 
   private boolean convertSatResult(Result result) throws InterruptedException, SolverException {
@@ -137,6 +137,7 @@ public final class CVC5SolverContext extends AbstractSolverContext {
 
   @Override
   public void close() {
+    closeProverPools();
     if (creator != null) {
       closed = true;
       creator = null;
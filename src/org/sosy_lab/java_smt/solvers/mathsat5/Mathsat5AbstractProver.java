@@ -59,20 +59,18 @@ abstract class Mathsat5AbstractProver<T2> extends AbstractProver<T2> {
   private final long terminationTest;
   protected final Mathsat5FormulaCreator creator;
   protected boolean closed = false;
-  private final ShutdownNotifier shutdownNotifier;
 
   protected Mathsat5AbstractProver(
       Mathsat5SolverContext pContext,
       Set<ProverOptions> pOptions,
       Mathsat5FormulaCreator pCreator,
       ShutdownNotifier pShutdownNotifier) {
-    super(pOptions);
+    super(pOptions, pShutdownNotifier);
     context = pContext;
     creator = pCreator;
     curConfig = buildConfig(pOptions);
     curEnv = context.createEnvironment(curConfig);
-    terminationTest = context.addTerminationTest(curEnv);
-    shutdownNotifier = pShutdownNotifier;
+    terminationTest = context.addTerminationTest(curEnv, shutdownNotifier);
   }
 
   private long buildConfig(Set<ProverOptions> opts) {
@@ -161,6 +161,17 @@ class Mathsat5FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
     return Mathsat5FormulaManager.getMsatTerm(pT);
   }
 
+  @Override
+  protected boolean hasNativeTermIds() {
+    return true;
+  }
+
+  /** MathSAT5 uses hash-consing for its terms, thus the pointer is unique within the context. */
+  @Override
+  protected long getNativeTermId(Formula pFormula) {
+    return Mathsat5FormulaManager.getMsatTerm(pFormula);
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public <T extends Formula> FormulaType<T> getFormulaType(T pFormula) {
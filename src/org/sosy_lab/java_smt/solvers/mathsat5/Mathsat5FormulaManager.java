@@ -126,7 +126,7 @@ final class Mathsat5FormulaManager extends AbstractFormulaManager<Long, Long, Lo
   }
 
   @Override
-  public BooleanFormula translateFrom(BooleanFormula formula, FormulaManager otherManager) {
+  public <T extends Formula> T translateFrom(T formula, FormulaManager otherManager) {
     if (otherManager instanceof Mathsat5FormulaManager) {
       long otherMsatContext = ((Mathsat5FormulaManager) otherManager).getEnvironment();
       if (otherMsatContext == getEnvironment()) {
@@ -138,7 +138,8 @@ final class Mathsat5FormulaManager extends AbstractFormulaManager<Long, Long, Lo
         // Msat5 to Msat5 translation.
         long translatedFormula =
             msat_make_copy_from(getEnvironment(), extractInfo(formula), otherMsatContext);
-        return getFormulaCreator().encapsulateBoolean(translatedFormula);
+        return getFormulaCreator()
+            .encapsulate(otherManager.getFormulaType(formula), translatedFormula);
       }
     }
     return super.translateFrom(formula, otherManager);
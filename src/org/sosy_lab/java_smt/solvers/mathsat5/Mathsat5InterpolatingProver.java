@@ -16,11 +16,11 @@ import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_set_
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.primitives.Ints;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -108,11 +108,13 @@ class Mathsat5InterpolatingProver extends Mathsat5AbstractProver<Integer>
   @Override
   public BooleanFormula getInterpolant(Collection<Integer> formulasOfA) throws SolverException {
     Preconditions.checkState(!closed);
-
     int[] groupsOfA = Ints.toArray(formulasOfA);
-    long itp;
+    return creator.encapsulateBoolean(getInterpolant(groupsOfA));
+  }
+
+  private long getInterpolant(int[] pGroupsOfA) throws SolverException {
     try {
-      itp = msat_get_interpolant(curEnv, groupsOfA);
+      return msat_get_interpolant(curEnv, pGroupsOfA);
     } catch (IllegalArgumentException e) {
       final String message = e.getMessage();
       if (!Strings.isNullOrEmpty(message)
@@ -124,28 +126,41 @@ class Mathsat5InterpolatingProver extends Mathsat5AbstractProver<Integer>
       }
       throw e;
     }
-    return creator.encapsulateBoolean(itp);
   }
 
   @Override
   public List<BooleanFormula> getSeqInterpolants(
       List<? extends Collection<Integer>> partitionedFormulas) throws SolverException {
+    Preconditions.checkState(!closed);
     Preconditions.checkArgument(
         !partitionedFormulas.isEmpty(), "at least one partition should be available.");
 
-    // the fallback to a loop is sound and returns an inductive sequence of interpolants
-    final List<BooleanFormula> itps = new ArrayList<>();
-    for (int i = 1; i < partitionedFormulas.size(); i++) {
-      itps.add(
-          getInterpolant(
-              ImmutableList.copyOf(Iterables.concat(partitionedFormulas.subList(0, i)))));
+    // MathSAT has no call for sequence interpolants, but all interpolants are computed from the
+    // same proof of the last satisfiability check, which returns an inductive sequence.
+    // We collect all groups once in the order of the partitions, such that the A-part of each cut
+    // is a prefix of this array. The JNI binding copies the whole given array, thus we pass a copy
+    // of the prefix instead of the full array.
+    int[] groups = Ints.toArray(Iterables.concat(partitionedFormulas));
+    final List<BooleanFormula> itps = new ArrayList<>(partitionedFormulas.size() - 1);
+    int prefixSize = 0;
+    for (int i = 0; i < partitionedFormulas.size() - 1; i++) {
+      prefixSize += partitionedFormulas.get(i).size();
+      itps.add(creator.encapsulateBoolean(getInterpolant(Arrays.copyOf(groups, prefixSize))));
     }
     return itps;
   }
 
   @Override
   public List<BooleanFormula> getTreeInterpolants(
-      List<? extends Collection<Integer>> partitionedFormulas, int[] startOfSubTree) {
+      List<? extends Collection<Integer>> partitionedFormulas, int[] startOfSubTree)
+      throws SolverException {
+    assert InterpolatingProverEnvironment.checkTreeStructure(
+        partitionedFormulas.size(), startOfSubTree);
+    // Interpolants for the single cuts of a tree are not guaranteed to be inductive for branching
+    // trees, thus we only support trees that are sequences.
+    if (Arrays.stream(startOfSubTree).allMatch(start -> start == 0)) {
+      return getSeqInterpolants(partitionedFormulas);
+    }
     throw new UnsupportedOperationException(
         "directly receiving tree interpolants is not supported."
             + "Use another solver or another strategy for interpolants.");
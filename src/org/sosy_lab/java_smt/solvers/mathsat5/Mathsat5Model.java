@@ -23,13 +23,18 @@ import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_term
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_term_is_array_write;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Predicates;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.Predicate;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.basicimpl.AbstractModel;
 
 class Mathsat5Model extends AbstractModel<Long, Long, Long> {
@@ -40,6 +45,9 @@ class Mathsat5Model extends AbstractModel<Long, Long, Long> {
   /** for detecting closed environments, Exception is better than SegFault. */
   private final Mathsat5AbstractProver<?> prover;
 
+  /** native iterators that are not yet exhausted and need to be destroyed together with us. */
+  private final Set<Long> openIterators = new HashSet<>();
+
   Mathsat5Model(long model, Mathsat5FormulaCreator creator, Mathsat5AbstractProver<?> pProver) {
     super(pProver, creator);
     this.model = model;
@@ -49,26 +57,73 @@ class Mathsat5Model extends AbstractModel<Long, Long, Long> {
 
   @Override
   public ImmutableList<ValueAssignment> asList() {
+    return ImmutableList.copyOf(iterator(Predicates.alwaysTrue()));
+  }
+
+  @Override
+  public Iterator<ValueAssignment> iterator() {
+    return iterator(Predicates.alwaysTrue());
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getAssignments(String pName) {
+    return ImmutableList.copyOf(iterator(pName::equals));
+  }
+
+  /**
+   * Iterate lazily over the native model iterator of MathSAT5. Only entries with a matching name
+   * are converted into assignments.
+   */
+  private Iterator<ValueAssignment> iterator(Predicate<String> pNameFilter) {
+    checkNotClosed();
+    return lazyIterator(
+        new ModelEntryIterator(),
+        entry -> {
+          long key = entry[0];
+          long value = entry[1];
+          if (!pNameFilter.test(formulaCreator.getName(key))) {
+            return ImmutableList.of();
+          } else if (msat_is_array_type(creator.getEnv(), msat_term_get_type(value))) {
+            return getArrayAssignments(key, key, value, ImmutableList.of());
+          } else {
+            return ImmutableList.of(getAssignment(key, value));
+          }
+        });
+  }
+
+  private void checkNotClosed() {
     Preconditions.checkState(!isClosed());
     Preconditions.checkState(!prover.closed, "cannot use model after prover is closed");
-    ImmutableList.Builder<ValueAssignment> assignments = ImmutableList.builder();
+  }
+
+  /**
+   * Iterator over the pairs of key and value of the model. The native iterator is destroyed when
+   * it is exhausted or the model is closed, whichever comes first.
+   */
+  private final class ModelEntryIterator extends AbstractIterator<long[]> {
+
+    private final long modelIterator;
+
+    private ModelEntryIterator() {
+      modelIterator = msat_model_create_iterator(model);
+      openIterators.add(modelIterator);
+    }
 
-    long modelIterator = msat_model_create_iterator(model);
-    while (msat_model_iterator_has_next(modelIterator)) {
+    @Override
+    protected long @Nullable [] computeNext() {
+      checkNotClosed();
+      if (!msat_model_iterator_has_next(modelIterator)) {
+        openIterators.remove(modelIterator);
+        msat_destroy_model_iterator(modelIterator);
+        return endOfData();
+      }
       long[] key = new long[1];
       long[] value = new long[1];
       if (msat_model_iterator_next(modelIterator, key, value)) {
         throw new NoSuchElementException();
       }
-
-      if (msat_is_array_type(creator.getEnv(), msat_term_get_type(value[0]))) {
-        assignments.addAll(getArrayAssignments(key[0], key[0], value[0], ImmutableList.of()));
-      } else {
-        assignments.add(getAssignment(key[0], value[0]));
-      }
+      return new long[] {key[0], value[0]};
     }
-    msat_destroy_model_iterator(modelIterator);
-    return assignments.build();
   }
 
   private ValueAssignment getAssignment(long key, long value) {
@@ -128,6 +183,10 @@ class Mathsat5Model extends AbstractModel<Long, Long, Long> {
   @Override
   public void close() {
     if (!isClosed()) {
+      for (long modelIterator : openIterators) {
+        msat_destroy_model_iterator(modelIterator);
+      }
+      openIterators.clear();
       msat_destroy_model(model);
     }
     super.close();
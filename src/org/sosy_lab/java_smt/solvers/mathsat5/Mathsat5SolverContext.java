@@ -97,7 +97,6 @@ public final class Mathsat5SolverContext extends AbstractSolverContext {
   private final long randomSeed;
 
   private final ShutdownNotifier shutdownNotifier;
-  private final TerminationCallback terminationTest;
   private final Mathsat5FormulaCreator creator;
   private boolean closed = false;
 
@@ -121,12 +120,6 @@ public final class Mathsat5SolverContext extends AbstractSolverContext {
     this.randomSeed = randomSeed;
     this.shutdownNotifier = shutdownNotifier;
     this.creator = creator;
-
-    terminationTest =
-        () -> {
-          shutdownNotifier.shutdownIfNecessary();
-          return false;
-        };
   }
 
   private static void logLicenseInfo(LogManager logger) {
@@ -289,6 +282,7 @@ public final class Mathsat5SolverContext extends AbstractSolverContext {
 
   @Override
   public void close() {
+    closeProverPools();
     if (!closed) {
       closed = true;
       logger.log(Level.FINER, "Freeing Mathsat environment");
@@ -297,8 +291,14 @@ public final class Mathsat5SolverContext extends AbstractSolverContext {
     }
   }
 
-  long addTerminationTest(long env) {
+  /** Let MathSAT stop a check in the given environment when the given notifier is triggered. */
+  long addTerminationTest(long env, ShutdownNotifier pShutdownNotifier) {
     Preconditions.checkState(!closed, "solver context is already closed");
+    TerminationCallback terminationTest =
+        () -> {
+          pShutdownNotifier.shutdownIfNecessary();
+          return false;
+        };
     return msat_set_termination_callback(env, terminationTest);
   }
 
@@ -207,6 +207,7 @@ abstract class PrincessAbstractProver<E, AF> extends AbstractProverWithAllSat<E>
       creator.getEnv().unregisterStack(this);
     }
     closed = true;
+    super.close();
   }
 
   @Override
@@ -25,10 +25,12 @@ import ap.theories.ExtArray;
 import ap.types.Sort;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Multimap;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -55,6 +57,15 @@ class PrincessModel extends AbstractModel<IExpression, Sort, PrincessEnvironment
 
   @Override
   public ImmutableList<ValueAssignment> asList() {
+    return ImmutableList.copyOf(iterator());
+  }
+
+  /**
+   * Iterate lazily over the entries of the model. Princess keeps the whole model in memory anyway,
+   * but the entries are only converted into assignments when the iteration reaches them.
+   */
+  @Override
+  public Iterator<ValueAssignment> iterator() {
     scala.collection.Map<IExpression, IExpression> interpretation = model.interpretation();
 
     // get abbreviations, we do not want to export them.
@@ -67,14 +78,16 @@ class PrincessModel extends AbstractModel<IExpression, Sort, PrincessEnvironment
     // first get the addresses of arrays
     Multimap<IFunApp, ITerm> arrays = getArrays(interpretation);
 
-    // then iterate over the model and generate the assignments
-    ImmutableSet.Builder<ValueAssignment> assignments = ImmutableSet.builder();
-    for (Map.Entry<IExpression, IExpression> entry : asJava(interpretation).entrySet()) {
-      if (!isAbbrev(abbrevs, entry.getKey())) {
-        assignments.addAll(getAssignments(entry.getKey(), entry.getValue(), arrays));
-      }
-    }
-    return assignments.build().asList();
+    // then iterate over the model and generate the assignments.
+    // array accesses can be reported several times, thus we skip duplicates.
+    Set<ValueAssignment> seen = new HashSet<>();
+    Iterator<ValueAssignment> assignments =
+        lazyIterator(
+            Iterators.filter(
+                asJava(interpretation).entrySet().iterator(),
+                entry -> !isAbbrev(abbrevs, entry.getKey())),
+            entry -> getAssignments(entry.getKey(), entry.getValue(), arrays));
+    return Iterators.filter(assignments, seen::add);
   }
 
   private boolean isAbbrev(Set<Predicate> abbrevs, IExpression var) {
@@ -103,6 +103,7 @@ public final class PrincessSolverContext extends AbstractSolverContext {
 
   @Override
   public void close() {
+    closeProverPools();
     creator.getEnv().close();
   }
 
@@ -49,7 +49,6 @@ abstract class SmtInterpolAbstractProver<T, AF> extends AbstractProver<T> {
   protected final SmtInterpolFormulaManager mgr;
   protected final Deque<List<AF>> assertedFormulas = new ArrayDeque<>();
   protected final Map<String, Term> annotatedTerms = new HashMap<>(); // Collection of termNames
-  protected final ShutdownNotifier shutdownNotifier;
 
   private static final String PREFIX = "term_"; // for termnames
   private static final UniqueIdGenerator termIdGenerator =
@@ -60,11 +59,10 @@ abstract class SmtInterpolAbstractProver<T, AF> extends AbstractProver<T> {
       Script pEnv,
       Set<ProverOptions> options,
       ShutdownNotifier pShutdownNotifier) {
-    super(options);
+    super(options, pShutdownNotifier);
     mgr = pMgr;
     creator = pMgr.getFormulaCreator();
     env = pEnv;
-    shutdownNotifier = pShutdownNotifier;
     assertedFormulas.push(new ArrayList<>());
   }
 
@@ -210,6 +208,7 @@ abstract class SmtInterpolAbstractProver<T, AF> extends AbstractProver<T> {
       env.pop(assertedFormulas.size());
       closed = true;
     }
+    super.close();
   }
 
   @Override
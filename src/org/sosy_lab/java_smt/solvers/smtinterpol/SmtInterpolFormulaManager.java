@@ -25,12 +25,14 @@ import de.uni_freiburg.informatik.ultimate.smtinterpol.LogProxy;
 import de.uni_freiburg.informatik.ultimate.smtinterpol.option.OptionMap;
 import de.uni_freiburg.informatik.ultimate.smtinterpol.smtlib2.ParseEnvironment;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.common.Appenders;
 import org.sosy_lab.common.log.LogManager;
@@ -74,9 +76,30 @@ public class SmtInterpolFormulaManager
   public BooleanFormula parse(String pS) throws IllegalArgumentException {
     FormulaCollectionScript parseScript =
         new FormulaCollectionScript(getEnvironment(), getEnvironment().getTheory());
+    parseStream(parseScript, new StringReader(pS));
+
+    Term term = getOnlyElement(parseScript.getAssertedTerms());
+    return encapsulateBooleanFormula(new FormulaUnLet().unlet(term));
+  }
+
+  /** SMTInterpol parses the input incrementally, thus we directly forward each assertion. */
+  @Override
+  public void parseAssertions(Reader pInput, Consumer<BooleanFormula> pConsumer) {
+    FormulaCollectionScript parseScript =
+        new FormulaCollectionScript(getEnvironment(), getEnvironment().getTheory()) {
+          @Override
+          public LBool assertTerm(Term pTerm) throws SMTLIBException {
+            pConsumer.accept(encapsulateBooleanFormula(new FormulaUnLet().unlet(pTerm)));
+            return LBool.UNKNOWN;
+          }
+        };
+    parseStream(parseScript, pInput);
+  }
+
+  private void parseStream(FormulaCollectionScript pParseScript, Reader pInput) {
     LogProxy logProxy = new LogProxyForwarder(logger.withComponentName("SMTInterpol"));
     final ParseEnvironment parseEnv =
-        new ParseEnvironment(parseScript, new OptionMap(logProxy, true)) {
+        new ParseEnvironment(pParseScript, new OptionMap(logProxy, true)) {
           @Override
           public void printError(String pMessage) {
             throw new SMTLIBException(pMessage);
@@ -87,13 +110,10 @@ public class SmtInterpolFormulaManager
         };
 
     try {
-      parseEnv.parseStream(new StringReader(pS), "<stdin>");
+      parseEnv.parseStream(pInput, "<stdin>");
     } catch (SMTLIBException nested) {
       throw new IllegalArgumentException(nested);
     }
-
-    Term term = getOnlyElement(parseScript.getAssertedTerms());
-    return encapsulateBooleanFormula(new FormulaUnLet().unlet(term));
   }
 
   @Override
@@ -8,8 +8,10 @@
 
 package org.sosy_lab.java_smt.solvers.smtinterpol;
 
+import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
 import de.uni_freiburg.informatik.ultimate.logic.ApplicationTerm;
 import de.uni_freiburg.informatik.ultimate.logic.FunctionSymbol;
 import de.uni_freiburg.informatik.ultimate.logic.Model;
@@ -19,9 +21,11 @@ import de.uni_freiburg.informatik.ultimate.logic.Term;
 import de.uni_freiburg.informatik.ultimate.smtinterpol.model.FunctionValue.Index;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 import org.sosy_lab.java_smt.basicimpl.AbstractModel;
 import org.sosy_lab.java_smt.basicimpl.AbstractProver;
 import org.sosy_lab.java_smt.basicimpl.FormulaCreator;
@@ -45,7 +49,24 @@ class SmtInterpolModel extends AbstractModel<Term, Sort, Script> {
 
   @Override
   public ImmutableList<ValueAssignment> asList() {
+    return ImmutableList.copyOf(iterator(Predicates.alwaysTrue()));
+  }
 
+  @Override
+  public Iterator<ValueAssignment> iterator() {
+    return iterator(Predicates.alwaysTrue());
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getAssignments(String pName) {
+    return ImmutableList.copyOf(iterator(pName::equals));
+  }
+
+  /**
+   * Iterate lazily over the defined symbols of the model. Only symbols with a matching name are
+   * converted into assignments.
+   */
+  private Iterator<ValueAssignment> iterator(Predicate<String> pNameFilter) {
     Set<FunctionSymbol> usedSymbols = new LinkedHashSet<>();
     for (Term assertedTerm : assertedTerms) {
       for (Term symbol : creator.extractVariablesAndUFs(assertedTerm, true).values()) {
@@ -55,31 +76,33 @@ class SmtInterpolModel extends AbstractModel<Term, Sort, Script> {
       }
     }
 
-    ImmutableSet.Builder<ValueAssignment> assignments = ImmutableSet.builder();
-
-    for (FunctionSymbol symbol : model.getDefinedFunctions()) {
-
-      // SMTInterpol also reports evaluations for unused symbols, including those from different
-      // prover stacks. Thus, we ignore unused symbols. Those symbols are still shown when
-      // applying model.toString().
-      if (!usedSymbols.contains(symbol)) {
-        continue;
-      }
+    // SMTInterpol also reports evaluations for unused symbols, including those from different
+    // prover stacks. Thus, we ignore unused symbols. Those symbols are still shown when
+    // applying model.toString().
+    Iterator<FunctionSymbol> symbols =
+        Iterators.filter(
+            model.getDefinedFunctions().iterator(),
+            symbol ->
+                usedSymbols.contains(symbol)
+                    && pNameFilter.test(unescape(symbol.getApplicationString())));
+
+    return lazyIterator(symbols, this::getSymbolAssignments);
+  }
 
-      final String name = unescape(symbol.getApplicationString());
-      if (symbol.getParameterSorts().length == 0) { // simple variable or array
-        Term variable = env.term(name);
-        if (symbol.getReturnSort().isArraySort()) {
-          assignments.addAll(getArrayAssignment(name, variable, variable, ImmutableList.of()));
-        } else {
-          assignments.add(getAssignment(name, (ApplicationTerm) variable));
-        }
-      } else { // uninterpreted function
-        assignments.addAll(getUFAssignments(symbol));
+  /** Get all modeled assignments for the symbol, without duplicates. */
+  private Collection<ValueAssignment> getSymbolAssignments(FunctionSymbol symbol) {
+    final String name = unescape(symbol.getApplicationString());
+    if (symbol.getParameterSorts().length == 0) { // simple variable or array
+      Term variable = env.term(name);
+      if (symbol.getReturnSort().isArraySort()) {
+        return ImmutableSet.copyOf(
+            getArrayAssignment(name, variable, variable, ImmutableList.of()));
+      } else {
+        return ImmutableList.of(getAssignment(name, (ApplicationTerm) variable));
       }
+    } else { // uninterpreted function
+      return ImmutableSet.copyOf(getUFAssignments(symbol));
     }
-
-    return assignments.build().asList();
   }
 
   private static String unescape(String s) {
@@ -321,7 +321,9 @@ public final class SmtInterpolSolverContext extends AbstractSolverContext {
   }
 
   @Override
-  public void close() {}
+  public void close() {
+    closeProverPools();
+  }
 
   @Override
   protected boolean supportsAssumptionSolving() {
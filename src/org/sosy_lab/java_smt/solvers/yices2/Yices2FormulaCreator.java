@@ -182,6 +182,17 @@ public class Yices2FormulaCreator extends FormulaCreator<Integer, Integer, Long,
     return Yices2FormulaManager.getYicesTerm(pT);
   }
 
+  @Override
+  protected boolean hasNativeTermIds() {
+    return true;
+  }
+
+  /** Yices2 uses hash-consing for its terms, which are represented as unique integers. */
+  @Override
+  protected long getNativeTermId(Formula pFormula) {
+    return ((Yices2Formula) pFormula).getTerm();
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public <T extends Formula> T encapsulate(FormulaType<T> pType, Integer pTerm) {
@@ -91,6 +91,7 @@ public class Yices2SolverContext extends AbstractSolverContext {
 
   @Override
   public synchronized void close() {
+    closeProverPools();
     if (!closed) {
       closed = true;
       synchronized (Yices2SolverContext.class) {
@@ -225,5 +225,6 @@ class Yices2TheoremProver extends AbstractProverWithAllSat<Void> implements Prov
       constraintStack.clear();
       closed = true;
     }
+    super.close();
   }
 }
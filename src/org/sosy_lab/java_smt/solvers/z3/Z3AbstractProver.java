@@ -154,7 +154,7 @@ abstract class Z3AbstractProver<T> extends AbstractProverWithAllSat<T> {
   protected final void undefinedStatusToException(int solverStatus)
       throws Z3SolverException, InterruptedException {
     if (solverStatus == Z3_lbool.Z3_L_UNDEF.toInt()) {
-      creator.shutdownNotifier.shutdownIfNecessary();
+      shutdownNotifier.shutdownIfNecessary();
       final String reason = Native.solverGetReasonUnknown(z3context, z3solver);
       switch (reason) {
         case "canceled": // see Z3: src/tactic/tactic.cpp
@@ -329,6 +329,7 @@ abstract class Z3AbstractProver<T> extends AbstractProverWithAllSat<T> {
 
       closed = true;
     }
+    super.close();
   }
 
   @Override
@@ -8,7 +8,6 @@
 
 package org.sosy_lab.java_smt.solvers.z3;
 
-import com.google.common.primitives.Longs;
 import com.microsoft.z3.Native;
 import java.math.BigInteger;
 import java.util.List;
@@ -17,10 +16,12 @@ import org.sosy_lab.java_smt.basicimpl.AbstractBitvectorFormulaManager;
 class Z3BitvectorFormulaManager extends AbstractBitvectorFormulaManager<Long, Long, Long, Long> {
 
   private final long z3context;
+  private final Z3FormulaCreator creator;
 
-  Z3BitvectorFormulaManager(Z3FormulaCreator creator, Z3BooleanFormulaManager pBmgr) {
-    super(creator, pBmgr);
-    this.z3context = creator.getEnv();
+  Z3BitvectorFormulaManager(Z3FormulaCreator pCreator, Z3BooleanFormulaManager pBmgr) {
+    super(pCreator, pBmgr);
+    this.z3context = pCreator.getEnv();
+    this.creator = pCreator;
   }
 
   @Override
@@ -175,6 +176,6 @@ class Z3BitvectorFormulaManager extends AbstractBitvectorFormulaManager<Long, Lo
 
   @Override
   protected Long distinctImpl(List<Long> pBits) {
-    return Native.mkDistinct(z3context, pBits.size(), Longs.toArray(pBits));
+    return Native.mkDistinct(z3context, pBits.size(), creator.toOperandBuffer(pBits));
   }
 }
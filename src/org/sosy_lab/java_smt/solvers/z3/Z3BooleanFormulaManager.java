@@ -18,12 +18,14 @@ import org.sosy_lab.java_smt.basicimpl.AbstractBooleanFormulaManager;
 class Z3BooleanFormulaManager extends AbstractBooleanFormulaManager<Long, Long, Long, Long> {
 
   private final long z3context;
+  private final Z3FormulaCreator creator;
   private final Long z3true;
   private final Long z3false;
 
-  Z3BooleanFormulaManager(Z3FormulaCreator creator) {
-    super(creator);
-    z3context = creator.getEnv();
+  Z3BooleanFormulaManager(Z3FormulaCreator pCreator) {
+    super(pCreator);
+    z3context = pCreator.getEnv();
+    creator = pCreator;
     z3true = Native.mkTrue(z3context);
     Native.incRef(z3context, z3true);
     z3false = Native.mkFalse(z3context);
@@ -78,17 +80,29 @@ class Z3BooleanFormulaManager extends AbstractBooleanFormulaManager<Long, Long,
     return Native.mkOr(z3context, 2, new long[] {pParam1, pParam2});
   }
 
+  @Override
+  public BooleanFormula or(Collection<BooleanFormula> pBits) {
+    if (pBits.size() <= 2) {
+      return super.or(pBits);
+    }
+    return creator.encapsulateBoolean(mkOr(toOperandBuffer(pBits), pBits.size()));
+  }
+
   @Override
   protected Long orImpl(Collection<Long> params) {
+    return mkOr(creator.toOperandBuffer(params), params.size());
+  }
+
+  private long mkOr(long[] operands, int size) {
     // Z3 does not do any simplifications, so we filter "false" and short-circuit on "true".
-    final long[] operands = new long[params.size()]; // over-approximate size
     int count = 0;
-    for (final Long operand : params) {
-      if (isTrue(operand)) {
+    for (int i = 0; i < size; i++) {
+      long operand = operands[i];
+      if (Native.isEqAst(z3context, operand, z3true)) {
         return operand;
       }
-      if (!isFalse(operand)) {
-        operands[count] = operand;
+      if (!Native.isEqAst(z3context, operand, z3false)) {
+        operands[count] = operand; // compact the buffer in place
         count++;
       }
     }
@@ -107,17 +121,29 @@ class Z3BooleanFormulaManager extends AbstractBooleanFormulaManager<Long, Long,
     return Collectors.collectingAndThen(Collectors.toList(), this::or);
   }
 
+  @Override
+  public BooleanFormula and(Collection<BooleanFormula> pBits) {
+    if (pBits.size() <= 2) {
+      return super.and(pBits);
+    }
+    return creator.encapsulateBoolean(mkAnd(toOperandBuffer(pBits), pBits.size()));
+  }
+
   @Override
   protected Long andImpl(Collection<Long> params) {
+    return mkAnd(creator.toOperandBuffer(params), params.size());
+  }
+
+  private long mkAnd(long[] operands, int size) {
     // Z3 does not do any simplifications, so we filter "true" and short-circuit on "false".
-    final long[] operands = new long[params.size()]; // over-approximate size
     int count = 0;
-    for (final Long operand : params) {
-      if (isFalse(operand)) {
+    for (int i = 0; i < size; i++) {
+      long operand = operands[i];
+      if (Native.isEqAst(z3context, operand, z3false)) {
         return operand;
       }
-      if (!isTrue(operand)) {
-        operands[count] = operand;
+      if (!Native.isEqAst(z3context, operand, z3true)) {
+        operands[count] = operand; // compact the buffer in place
         count++;
       }
     }
@@ -136,6 +162,16 @@ class Z3BooleanFormulaManager extends AbstractBooleanFormulaManager<Long, Long,
     return Collectors.collectingAndThen(Collectors.toList(), this::and);
   }
 
+  /** Copy the native ids of the given formulas into the operand buffer, without boxing them. */
+  private long[] toOperandBuffer(Collection<BooleanFormula> pBits) {
+    long[] operands = creator.getOperandBuffer(pBits.size());
+    int i = 0;
+    for (BooleanFormula bit : pBits) {
+      operands[i++] = ((Z3Formula) bit).getFormulaInfo();
+    }
+    return operands;
+  }
+
   @Override
   protected Long xor(Long pParam1, Long pParam2) {
     return Native.mkXor(z3context, pParam1, pParam2);
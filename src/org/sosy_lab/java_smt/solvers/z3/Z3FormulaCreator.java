@@ -22,15 +22,15 @@ import com.microsoft.z3.enumerations.Z3_ast_kind;
 import com.microsoft.z3.enumerations.Z3_decl_kind;
 import com.microsoft.z3.enumerations.Z3_sort_kind;
 import com.microsoft.z3.enumerations.Z3_symbol_kind;
-import java.lang.ref.PhantomReference;
-import java.lang.ref.Reference;
-import java.lang.ref.ReferenceQueue;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.IdentityHashMap;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
@@ -38,7 +38,6 @@ import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.rationals.Rational;
-import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.java_smt.api.ArrayFormula;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
 import org.sosy_lab.java_smt.api.BooleanFormula;
@@ -53,8 +52,10 @@ import org.sosy_lab.java_smt.api.RegexFormula;
 import org.sosy_lab.java_smt.api.SolverException;
 import org.sosy_lab.java_smt.api.StringFormula;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+import org.sosy_lab.java_smt.basicimpl.CanonicalFormulaCache;
 import org.sosy_lab.java_smt.basicimpl.FormulaCreator;
 import org.sosy_lab.java_smt.basicimpl.FunctionDeclarationImpl;
+import org.sosy_lab.java_smt.basicimpl.NativeReferenceCleaner;
 import org.sosy_lab.java_smt.solvers.z3.Z3Formula.Z3ArrayFormula;
 import org.sosy_lab.java_smt.solvers.z3.Z3Formula.Z3BitvectorFormula;
 import org.sosy_lab.java_smt.solvers.z3.Z3Formula.Z3BooleanFormula;
@@ -104,6 +105,20 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   @Option(secure = true, description = "Whether to use PhantomReferences for discarding Z3 AST")
   private boolean usePhantomReferences = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Whether to release the Z3 ASTs of discarded formulas in a background thread instead of "
+              + "the thread that creates formulas. Only used together with usePhantomReferences.")
+  private boolean releaseReferencesInBackground = false;
+
+  @Option(
+      secure = true,
+      description =
+          "Whether to reuse the Java object of a formula for equal Z3 ASTs as long as it is "
+              + "reachable, such that equal formulas are usually identical objects.")
+  private boolean canonicalizeFormulas = false;
+
   /**
    * We need to track all created symbols for parsing.
    *
@@ -113,14 +128,14 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
 
   private final Table<Long, Long, Long> allocatedArraySorts = HashBasedTable.create();
 
-  /** Automatic clean-up of Z3 ASTs. */
-  private final ReferenceQueue<Z3Formula> referenceQueue = new ReferenceQueue<>();
+  /** Automatic clean-up of Z3 ASTs, only available if enabled via option. */
+  private final @Nullable NativeReferenceCleaner<Z3Formula, Long> referenceCleaner;
 
-  private final IdentityHashMap<PhantomReference<? extends Z3Formula>, Long> referenceMap =
-      new IdentityHashMap<>();
+  /** Reusable arrays for the operands of n-ary operations, see {@link #getOperandBuffer}. */
+  private final ThreadLocal<long[]> operandBuffer = ThreadLocal.withInitial(() -> new long[16]);
 
-  // todo: getters for statistic.
-  private final Timer cleanupTimer = new Timer();
+  /** Canonical wrappers for Z3 ASTs, only available if enabled via option. */
+  private final @Nullable CanonicalFormulaCache<Long> formulaCache;
   protected final ShutdownNotifier shutdownNotifier;
 
   @SuppressWarnings("ParameterNumber")
@@ -137,6 +152,23 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
     super(pEnv, pBoolType, pIntegerType, pRealType, pStringType, pRegexType);
     shutdownNotifier = pShutdownNotifier;
     config.inject(this);
+    if (usePhantomReferences) {
+      referenceCleaner = new NativeReferenceCleaner<>(this::decRefAll);
+      if (releaseReferencesInBackground) {
+        // Z3 queues the decrements from other threads and applies them under its own lock.
+        Native.enableConcurrentDecRef(pEnv);
+        referenceCleaner.startCleanupThread("Z3 reference cleanup");
+      }
+    } else {
+      referenceCleaner = null;
+    }
+    formulaCache = canonicalizeFormulas ? new CanonicalFormulaCache<>() : null;
+  }
+
+  private void decRefAll(List<Long> asts) {
+    for (long ast : asts) {
+      Native.decRef(environment, ast);
+    }
   }
 
   final Z3Exception handleZ3Exception(Z3Exception e) throws Z3Exception, InterruptedException {
@@ -164,6 +196,17 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
         "Cannot get the formula info of type " + pT.getClass().getSimpleName() + " in the Solver!");
   }
 
+  @Override
+  protected boolean hasNativeTermIds() {
+    return true;
+  }
+
+  /** Z3 uses hash-consing for its ASTs, thus the pointer is unique within the context. */
+  @Override
+  protected long getNativeTermId(Formula pFormula) {
+    return ((Z3Formula) pFormula).getFormulaInfo();
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public <T extends Formula> FormulaType<T> getFormulaType(T pFormula) {
@@ -242,16 +285,35 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
       Long pTerm, FormulaType<TD> pIndexType, FormulaType<TR> pElementType) {
     assert getFormulaType(pTerm).equals(FormulaType.getArrayType(pIndexType, pElementType));
     cleanupReferences();
-    return storePhantomReference(
-        new Z3ArrayFormula<>(getEnv(), pTerm, pIndexType, pElementType), pTerm);
+    return wrap(
+        pTerm,
+        f ->
+            f instanceof Z3ArrayFormula
+                && ((Z3ArrayFormula<?, ?>) f).getIndexType().equals(pIndexType)
+                && ((Z3ArrayFormula<?, ?>) f).getElementType().equals(pElementType),
+        () -> new Z3ArrayFormula<>(getEnv(), pTerm, pIndexType, pElementType));
   }
 
-  private <T extends Z3Formula> T storePhantomReference(T out, Long pTerm) {
-    if (usePhantomReferences) {
-      PhantomReference<T> ref = new PhantomReference<>(out, referenceQueue);
-      referenceMap.put(ref, pTerm);
+  private <T extends Z3Formula> T wrap(Long pTerm, Class<T> pClass, Supplier<T> pWrapper) {
+    return wrap(pTerm, pClass::isInstance, pWrapper);
+  }
+
+  /**
+   * Create a new wrapper for the given AST, or reuse the existing one if canonical formulas are
+   * enabled.
+   */
+  private <T extends Z3Formula> T wrap(
+      Long pTerm, Predicate<? super Formula> pMatches, Supplier<T> pWrapper) {
+    CanonicalFormulaCache<Long> cache = formulaCache;
+    if (cache == null) {
+      return storePhantomReference(pWrapper.get(), pTerm);
     }
-    return out;
+    return cache.intern(pTerm, pMatches, () -> storePhantomReference(pWrapper.get(), pTerm));
+  }
+
+  private <T extends Z3Formula> T storePhantomReference(T out, Long pTerm) {
+    NativeReferenceCleaner<Z3Formula, Long> cleaner = referenceCleaner;
+    return cleaner == null ? out : cleaner.register(out, pTerm);
   }
 
   @SuppressWarnings("unchecked")
@@ -264,28 +326,34 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
             "Trying to encapsulate formula of type %s as %s", getFormulaType(pTerm), pType);
     cleanupReferences();
     if (pType.isBooleanType()) {
-      return (T) storePhantomReference(new Z3BooleanFormula(getEnv(), pTerm), pTerm);
+      return (T) wrap(pTerm, Z3BooleanFormula.class, () -> new Z3BooleanFormula(getEnv(), pTerm));
     } else if (pType.isIntegerType()) {
-      return (T) storePhantomReference(new Z3IntegerFormula(getEnv(), pTerm), pTerm);
+      return (T) wrap(pTerm, Z3IntegerFormula.class, () -> new Z3IntegerFormula(getEnv(), pTerm));
     } else if (pType.isRationalType()) {
-      return (T) storePhantomReference(new Z3RationalFormula(getEnv(), pTerm), pTerm);
+      return (T)
+          wrap(pTerm, Z3RationalFormula.class, () -> new Z3RationalFormula(getEnv(), pTerm));
     } else if (pType.isStringType()) {
-      return (T) storePhantomReference(new Z3StringFormula(getEnv(), pTerm), pTerm);
+      return (T) wrap(pTerm, Z3StringFormula.class, () -> new Z3StringFormula(getEnv(), pTerm));
     } else if (pType.isRegexType()) {
-      return (T) storePhantomReference(new Z3RegexFormula(getEnv(), pTerm), pTerm);
+      return (T) wrap(pTerm, Z3RegexFormula.class, () -> new Z3RegexFormula(getEnv(), pTerm));
     } else if (pType.isBitvectorType()) {
-      return (T) storePhantomReference(new Z3BitvectorFormula(getEnv(), pTerm), pTerm);
+      return (T)
+          wrap(pTerm, Z3BitvectorFormula.class, () -> new Z3BitvectorFormula(getEnv(), pTerm));
     } else if (pType.isFloatingPointType()) {
-      return (T) storePhantomReference(new Z3FloatingPointFormula(getEnv(), pTerm), pTerm);
+      return (T)
+          wrap(
+              pTerm,
+              Z3FloatingPointFormula.class,
+              () -> new Z3FloatingPointFormula(getEnv(), pTerm));
     } else if (pType.isFloatingPointRoundingModeType()) {
       return (T)
-          storePhantomReference(new Z3FloatingPointRoundingModeFormula(getEnv(), pTerm), pTerm);
+          wrap(
+              pTerm,
+              Z3FloatingPointRoundingModeFormula.class,
+              () -> new Z3FloatingPointRoundingModeFormula(getEnv(), pTerm));
     } else if (pType.isArrayType()) {
       ArrayFormulaType<?, ?> arrFt = (ArrayFormulaType<?, ?>) pType;
-      return (T)
-          storePhantomReference(
-              new Z3ArrayFormula<>(getEnv(), pTerm, arrFt.getIndexType(), arrFt.getElementType()),
-              pTerm);
+      return (T) encapsulateArray(pTerm, arrFt.getIndexType(), arrFt.getElementType());
     }
 
     throw new IllegalArgumentException("Cannot create formulas of type " + pType + " in Z3");
@@ -295,21 +363,22 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   public BooleanFormula encapsulateBoolean(Long pTerm) {
     assert getFormulaType(pTerm).isBooleanType();
     cleanupReferences();
-    return storePhantomReference(new Z3BooleanFormula(getEnv(), pTerm), pTerm);
+    return wrap(pTerm, Z3BooleanFormula.class, () -> new Z3BooleanFormula(getEnv(), pTerm));
   }
 
   @Override
   public BitvectorFormula encapsulateBitvector(Long pTerm) {
     assert getFormulaType(pTerm).isBitvectorType();
     cleanupReferences();
-    return storePhantomReference(new Z3BitvectorFormula(getEnv(), pTerm), pTerm);
+    return wrap(pTerm, Z3BitvectorFormula.class, () -> new Z3BitvectorFormula(getEnv(), pTerm));
   }
 
   @Override
   protected FloatingPointFormula encapsulateFloatingPoint(Long pTerm) {
     assert getFormulaType(pTerm).isFloatingPointType();
     cleanupReferences();
-    return storePhantomReference(new Z3FloatingPointFormula(getEnv(), pTerm), pTerm);
+    return wrap(
+        pTerm, Z3FloatingPointFormula.class, () -> new Z3FloatingPointFormula(getEnv(), pTerm));
   }
 
   @Override
@@ -320,7 +389,7 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
             Native.astToString(getEnv(), pTerm),
             Native.sortToString(getEnv(), Native.getSort(getEnv(), pTerm)));
     cleanupReferences();
-    return storePhantomReference(new Z3StringFormula(getEnv(), pTerm), pTerm);
+    return wrap(pTerm, Z3StringFormula.class, () -> new Z3StringFormula(getEnv(), pTerm));
   }
 
   @Override
@@ -331,7 +400,7 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
             Native.astToString(getEnv(), pTerm),
             Native.sortToString(getEnv(), Native.getSort(getEnv(), pTerm)));
     cleanupReferences();
-    return storePhantomReference(new Z3RegexFormula(getEnv(), pTerm), pTerm);
+    return wrap(pTerm, Z3RegexFormula.class, () -> new Z3RegexFormula(getEnv(), pTerm));
   }
 
   @Override
@@ -361,18 +430,9 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   }
 
   private void cleanupReferences() {
-    if (!usePhantomReferences) {
-      return;
-    }
-    cleanupTimer.start();
-    try {
-      Reference<? extends Z3Formula> ref;
-      while ((ref = referenceQueue.poll()) != null) {
-        long z3ast = referenceMap.remove(ref);
-        Native.decRef(environment, z3ast);
-      }
-    } finally {
-      cleanupTimer.stop();
+    NativeReferenceCleaner<Z3Formula, Long> cleaner = referenceCleaner;
+    if (cleaner != null) {
+      cleaner.cleanup();
     }
   }
 
@@ -802,7 +862,32 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
 
   @Override
   public Long callFunctionImpl(Long declaration, List<Long> args) {
-    return Native.mkApp(environment, declaration, args.size(), Longs.toArray(args));
+    return Native.mkApp(environment, declaration, args.size(), toOperandBuffer(args));
+  }
+
+  /**
+   * Return an array with at least the given size for passing operands to Z3. The array is reused
+   * by later calls from the same thread, thus it must be passed to Z3 right away. Z3 only reads
+   * as many elements as given by the separate size argument of its n-ary functions, such that
+   * large operations do not need to allocate and copy a new array each time.
+   */
+  long[] getOperandBuffer(int pSize) {
+    long[] buffer = operandBuffer.get();
+    if (buffer.length < pSize) {
+      buffer = new long[Math.max(pSize, 2 * buffer.length)];
+      operandBuffer.set(buffer);
+    }
+    return buffer;
+  }
+
+  /** Copy the given operands into the array from {@link #getOperandBuffer}. */
+  long[] toOperandBuffer(Collection<Long> pOperands) {
+    long[] buffer = getOperandBuffer(pOperands.size());
+    int i = 0;
+    for (long operand : pOperands) {
+      buffer[i++] = operand;
+    }
+    return buffer;
   }
 
   @Override
@@ -890,14 +975,35 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
         : Native.mkAnd(z3context, subgoalFormulas.length, subgoalFormulas);
   }
 
+  /** Statistics about the clean-up and reuse of Z3 ASTs, empty if neither is enabled. */
+  ImmutableMap<String, String> getReferenceStatistics() {
+    ImmutableMap.Builder<String, String> statistics = ImmutableMap.builder();
+    NativeReferenceCleaner<Z3Formula, Long> cleaner = referenceCleaner;
+    if (cleaner != null) {
+      statistics
+          .put("phantomReferences.trackedAsts", String.valueOf(cleaner.getTrackedTerms()))
+          .put("phantomReferences.releasedAsts", String.valueOf(cleaner.getReleasedTerms()))
+          .put("phantomReferences.cleanupTime", cleaner.getCleanupTime().formatAs(TimeUnit.SECONDS))
+          .put(
+              "phantomReferences.maxCleanupTime",
+              cleaner.getMaxCleanupTime().formatAs(TimeUnit.MILLISECONDS));
+    }
+    CanonicalFormulaCache<Long> cache = formulaCache;
+    if (cache != null) {
+      statistics
+          .put("canonicalFormulas.hits", String.valueOf(cache.getHits()))
+          .put("canonicalFormulas.misses", String.valueOf(cache.getMisses()));
+    }
+    return statistics.buildOrThrow();
+  }
+
   /** Closing the context. */
   public void forceClose() {
-    cleanupReferences();
-
     // Force clean all ASTs, even those which were not GC'd yet.
     // Is a no-op if phantom reference handling is not enabled.
-    for (long ast : referenceMap.values()) {
-      Native.decRef(getEnv(), ast);
+    NativeReferenceCleaner<Z3Formula, Long> cleaner = referenceCleaner;
+    if (cleaner != null) {
+      cleaner.releaseAll();
     }
   }
 
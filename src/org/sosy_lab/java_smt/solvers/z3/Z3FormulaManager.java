@@ -221,7 +221,7 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
   }
 
   @Override
-  public BooleanFormula translateFrom(BooleanFormula other, FormulaManager otherManager) {
+  public <T extends Formula> T translateFrom(T other, FormulaManager otherManager) {
     if (otherManager instanceof Z3FormulaManager) {
       long otherZ3Context = ((Z3FormulaManager) otherManager).getEnvironment();
       if (otherZ3Context == getEnvironment()) {
@@ -232,7 +232,7 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
 
         // Z3-to-Z3 translation.
         long translatedAST = Native.translate(otherZ3Context, extractInfo(other), getEnvironment());
-        return getFormulaCreator().encapsulateBoolean(translatedAST);
+        return getFormulaCreator().encapsulate(otherManager.getFormulaType(other), translatedAST);
       }
     }
     return super.translateFrom(other, otherManager);
@@ -9,8 +9,10 @@
 package org.sosy_lab.java_smt.solvers.z3;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Predicates;
 import com.google.common.base.VerifyException;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import com.microsoft.z3.Native;
 import com.microsoft.z3.Native.LongPtr;
 import com.microsoft.z3.enumerations.Z3_decl_kind;
@@ -18,9 +20,12 @@ import com.microsoft.z3.enumerations.Z3_sort_kind;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 import org.sosy_lab.java_smt.basicimpl.AbstractModel;
 import org.sosy_lab.java_smt.basicimpl.AbstractProver;
 
@@ -42,29 +47,66 @@ final class Z3Model extends AbstractModel<Long, Long, Long> {
 
   @Override
   public ImmutableList<ValueAssignment> asList() {
+    return ImmutableList.copyOf(iterator(Predicates.alwaysTrue()));
+  }
+
+  @Override
+  public Iterator<ValueAssignment> iterator() {
+    return iterator(Predicates.alwaysTrue());
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getAssignments(String pName) {
+    return ImmutableList.copyOf(iterator(pName::equals));
+  }
+
+  /**
+   * Iterate lazily over the constants and function interpretations in the model. Only
+   * declarations with a matching name are converted into assignments.
+   */
+  private Iterator<ValueAssignment> iterator(Predicate<String> pNameFilter) {
     Preconditions.checkState(!isClosed());
-    ImmutableList.Builder<ValueAssignment> out = ImmutableList.builder();
+    int numConsts = Native.modelGetNumConsts(z3context, model);
+    int numFuncs = Native.modelGetNumFuncs(z3context, model);
+    return Iterators.concat(
+        lazyIterator(
+            IntStream.range(0, numConsts).iterator(),
+            constIdx -> getConstAssignmentsAt(constIdx, pNameFilter)),
+        lazyIterator(
+            IntStream.range(0, numFuncs).iterator(),
+            funcIdx -> getFunctionAssignmentsAt(funcIdx, pNameFilter)));
+  }
 
-    // Iterate through constants.
-    for (int constIdx = 0; constIdx < Native.modelGetNumConsts(z3context, model); constIdx++) {
-      long keyDecl = Native.modelGetConstDecl(z3context, model, constIdx);
-      Native.incRef(z3context, keyDecl);
-      out.addAll(getConstAssignments(keyDecl));
+  private Collection<ValueAssignment> getConstAssignmentsAt(
+      int constIdx, Predicate<String> pNameFilter) {
+    long keyDecl = Native.modelGetConstDecl(z3context, model, constIdx);
+    Native.incRef(z3context, keyDecl);
+    try {
+      if (!pNameFilter.test(z3creator.symbolToString(Native.getDeclName(z3context, keyDecl)))) {
+        return ImmutableList.of();
+      }
+      return getConstAssignments(keyDecl);
+    } finally {
       Native.decRef(z3context, keyDecl);
     }
+  }
 
-    // Iterate through function applications.
-    for (int funcIdx = 0; funcIdx < Native.modelGetNumFuncs(z3context, model); funcIdx++) {
-      long funcDecl = Native.modelGetFuncDecl(z3context, model, funcIdx);
-      Native.incRef(z3context, funcDecl);
-      if (!isInternalSymbol(funcDecl)) {
-        String functionName = z3creator.symbolToString(Native.getDeclName(z3context, funcDecl));
-        out.addAll(getFunctionAssignments(funcDecl, funcDecl, functionName));
+  private Collection<ValueAssignment> getFunctionAssignmentsAt(
+      int funcIdx, Predicate<String> pNameFilter) {
+    long funcDecl = Native.modelGetFuncDecl(z3context, model, funcIdx);
+    Native.incRef(z3context, funcDecl);
+    try {
+      if (isInternalSymbol(funcDecl)) {
+        return ImmutableList.of();
+      }
+      String functionName = z3creator.symbolToString(Native.getDeclName(z3context, funcDecl));
+      if (!pNameFilter.test(functionName)) {
+        return ImmutableList.of();
       }
+      return getFunctionAssignments(funcDecl, funcDecl, functionName);
+    } finally {
       Native.decRef(z3context, funcDecl);
     }
-
-    return out.build();
   }
 
   /**
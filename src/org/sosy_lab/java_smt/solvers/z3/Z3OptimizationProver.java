@@ -100,7 +100,7 @@ class Z3OptimizationProver extends Z3AbstractProver<Void> implements Optimizatio
     if (status == Z3_lbool.Z3_L_FALSE.toInt()) {
       return OptStatus.UNSAT;
     } else if (status == Z3_lbool.Z3_L_UNDEF.toInt()) {
-      creator.shutdownNotifier.shutdownIfNecessary();
+      shutdownNotifier.shutdownIfNecessary();
       logger.log(
           Level.INFO,
           "Solver returned an unknown status, explanation: ",
@@ -208,7 +208,7 @@ class Z3OptimizationProver extends Z3AbstractProver<Void> implements Optimizatio
   public void close() {
     Preconditions.checkState(!closed);
     Native.optimizeDecRef(z3context, z3optSolver);
-    closed = true;
+    super.close();
   }
 
   /**
@@ -274,6 +274,7 @@ public final class Z3SolverContext extends AbstractSolverContext {
 
   @Override
   public void close() {
+    closeProverPools();
     if (!closed) {
       closed = true;
       long context = creator.getEnv();
@@ -284,6 +285,11 @@ public final class Z3SolverContext extends AbstractSolverContext {
     }
   }
 
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return creator.getReferenceStatistics();
+  }
+
   @Override
   protected boolean supportsAssumptionSolving() {
     return true;
@@ -0,0 +1,103 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.TruthJUnit.assume;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/** Test the asynchronous satisfiability check and its cancellation. */
+@RunWith(Parameterized.class)
+public class AsyncProverTest extends SolverBasedTest0 {
+
+  private static final int TIMEOUT_MILLISECONDS = 10000;
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUpExecutor() {
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void shutdownExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testIsUnsatAsync()
+      throws SolverException, InterruptedException, ExecutionException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(a);
+      assertThat(prover.isUnsatAsync(executor).get()).isFalse();
+      prover.push(bmgr.not(a));
+      assertThat(prover.isUnsatAsync(executor).get()).isTrue();
+    }
+  }
+
+  @Test(timeout = TIMEOUT_MILLISECONDS)
+  public void testCancelIsUnsatAsync()
+      throws SolverException, InterruptedException, ExecutionException {
+    assume()
+        .withMessage(solverToUse() + " does not support interrupting a single prover")
+        .that(solverToUse())
+        .isNoneOf(Solvers.PRINCESS, Solvers.SMTINTERPOL, Solvers.CVC5);
+
+    BooleanFormula hard =
+        solverToUse() == Solvers.BOOLECTOR
+            ? new HardBitvectorFormulaGenerator(bvmgr, bmgr).generate(100)
+            : new HardIntegerFormulaGenerator(imgr, bmgr).generate(100);
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(hard);
+      CompletableFuture<Boolean> result = prover.isUnsatAsync(executor);
+      Thread.sleep(50);
+      assertThat(result.cancel(true)).isTrue();
+      assertThat(result.isCancelled()).isTrue();
+
+      // the solver was interrupted, thus the executor is free again
+      executor.shutdown();
+      assertThat(executor.awaitTermination(TIMEOUT_MILLISECONDS, TimeUnit.MILLISECONDS)).isTrue();
+    }
+
+    // cancelling one check does not affect other provers of the context
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(bmgr.makeVariable("a"));
+      assertThat(prover.isUnsat()).isFalse();
+    }
+  }
+}
@@ -96,6 +96,25 @@ public class BooleanFormulaManagerTest extends SolverBasedTest0 {
     assertThatFormula(terms.stream().collect(bmgr.toDisjunction())).isEqualTo(bmgr.or(terms));
   }
 
+  @Test
+  public void testManyOperands() throws SolverException, InterruptedException {
+    ImmutableList.Builder<BooleanFormula> builder = ImmutableList.builder();
+    for (int i = 0; i < 1000; i++) {
+      builder.add(bmgr.makeVariable("v" + i));
+    }
+    List<BooleanFormula> vars = builder.build();
+    BooleanFormula conjunction = bmgr.and(vars);
+    BooleanFormula disjunction = bmgr.or(vars);
+
+    // smaller operations afterwards must not see operands of the larger ones
+    List<BooleanFormula> few = vars.subList(0, 3);
+    assertThatFormula(bmgr.and(few))
+        .isEquivalentTo(bmgr.and(vars.get(0), bmgr.and(vars.get(1), vars.get(2))));
+    assertThatFormula(conjunction).implies(bmgr.and(few));
+    assertThatFormula(bmgr.or(few)).implies(disjunction);
+    assertThatFormula(bmgr.and(conjunction, bmgr.not(vars.get(999)))).isUnsatisfiable();
+  }
+
   @Test
   public void testConjunctionArgsExtractionEmpty() throws SolverException, InterruptedException {
     requireVisitor();
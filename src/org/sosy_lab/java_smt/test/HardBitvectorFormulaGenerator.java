@@ -16,7 +16,7 @@ import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.BooleanFormulaManager;
 
 /** Generator of hard formulas using the theory of bitvectors. */
-class HardBitvectorFormulaGenerator {
+public class HardBitvectorFormulaGenerator {
   private final BitvectorFormulaManager bvmgr;
   private final BooleanFormulaManager bfmgr;
 
@@ -25,12 +25,13 @@ class HardBitvectorFormulaGenerator {
   // Set width accordingly
   private static final int BITVECTOR_WIDTH = 32;
 
-  HardBitvectorFormulaGenerator(BitvectorFormulaManager pBvmgr, BooleanFormulaManager pBfmgr) {
+  public HardBitvectorFormulaGenerator(
+      BitvectorFormulaManager pBvmgr, BooleanFormulaManager pBfmgr) {
     bvmgr = pBvmgr;
     bfmgr = pBfmgr;
   }
 
-  BooleanFormula generate(int n) {
+  public BooleanFormula generate(int n) {
     Preconditions.checkArgument(n >= 2);
     List<BooleanFormula> clauses = new ArrayList<>();
     clauses.add(
@@ -16,6 +16,7 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -233,6 +234,61 @@ public class ModelEvaluationTest extends SolverBasedTest0 {
     }
   }
 
+  @Test
+  public void testEvaluateAll() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    List<Formula> formulas = new ArrayList<>();
+    for (int i = 0; i < problemSize; i++) {
+      formulas.add(imgr.add(x, imgr.makeNumber(i % 10)));
+      formulas.add(imgr.lessThan(x, imgr.makeNumber(i)));
+    }
+    formulas.add(x); // duplicates are allowed
+    formulas.add(x);
+    formulas.add(imgr.makeVariable("y"));
+
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(imgr.equal(x, imgr.makeNumber(10)));
+      assertThat(prover).isSatisfiable();
+
+      try (Model m = prover.getModel()) {
+        Map<Formula, Object> evaluations = m.evaluateAll(formulas);
+        assertThat(evaluations).containsEntry(x, BigInteger.TEN);
+        for (Formula formula : formulas) {
+          Object value = m.evaluate(formula);
+          if (value == null) {
+            assertThat(evaluations).doesNotContainKey(formula);
+          } else {
+            assertThat(evaluations).containsEntry(formula, value);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEvaluateSameValueWithDifferentTypes()
+      throws SolverException, InterruptedException {
+    requireRationals();
+    IntegerFormula x = imgr.makeVariable("x");
+    RationalFormula y = rmgr.makeVariable("y");
+
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(imgr.equal(x, imgr.makeNumber(1)));
+      prover.push(rmgr.equal(y, rmgr.makeNumber(1)));
+      assertThat(prover).isSatisfiable();
+
+      try (Model m = prover.getModel()) {
+        // converted values are shared between evaluations, but not between types
+        for (int i = 0; i < 2; i++) {
+          assertThat(m.evaluate(x)).isEqualTo(BigInteger.ONE);
+          assertThat(m.evaluate(y)).isEqualTo(Rational.ONE);
+          assertThat(m.evaluate((Formula) x)).isEqualTo(BigInteger.ONE);
+        }
+      }
+    }
+  }
+
   @Test
   public void testEvaluatorGeneration() throws SolverException, InterruptedException {
     try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
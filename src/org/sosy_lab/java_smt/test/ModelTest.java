@@ -15,6 +15,7 @@ import static com.google.common.truth.TruthJUnit.assume;
 import static org.sosy_lab.java_smt.api.FormulaType.IntegerType;
 import static org.sosy_lab.java_smt.test.ProverEnvironmentSubject.assertThat;
 
+import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import java.io.IOException;
@@ -1089,6 +1090,42 @@ public class ModelTest extends SolverBasedTest0 {
     }
   }
 
+  @Test
+  public void testLazyIteratorMatchesList() throws SolverException, InterruptedException {
+    requireArrays();
+    requireIntegers();
+    ArrayFormula<IntegerFormula, IntegerFormula> array =
+        amgr.makeArray("array", IntegerType, IntegerType);
+    IntegerFormula x = imgr.makeVariable("x");
+    List<BooleanFormula> constraints = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      constraints.add(
+          imgr.equal(amgr.select(array, imgr.makeNumber(i)), imgr.add(x, imgr.makeNumber(i))));
+    }
+    constraints.add(imgr.equal(x, imgr.makeNumber(3)));
+
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(bmgr.and(constraints));
+      assertThat(prover).isSatisfiable();
+
+      try (Model m = prover.getModel()) {
+        ImmutableList<ValueAssignment> assignments = m.asList();
+        assertThat(ImmutableList.copyOf(m.iterator())).containsExactlyElementsIn(assignments);
+
+        for (String name : ImmutableList.of("array", "x", "unknown")) {
+          assertThat(m.getAssignments(name))
+              .containsExactlyElementsIn(
+                  Collections2.filter(assignments, va -> name.equals(va.getName())));
+        }
+
+        // stop the iteration early, closing the model must still work
+        if (m.iterator().hasNext()) {
+          m.iterator().next();
+        }
+      }
+    }
+  }
+
   @Test
   public void testGetArrays2() throws SolverException, InterruptedException {
     requireParser();
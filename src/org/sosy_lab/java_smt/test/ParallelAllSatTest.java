@@ -0,0 +1,118 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/** Tests for AllSAT queries that are split into cubes and solved in parallel. */
+public class ParallelAllSatTest extends SolverBasedTest0 {
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder()
+        .setOption("solver.parallelAllSat", "true")
+        .setOption("solver.parallelAllSat.cubeVariables", "2");
+  }
+
+  private static final class CollectingCallback
+      implements AllSatCallback<List<List<BooleanFormula>>> {
+
+    private final List<List<BooleanFormula>> models = new ArrayList<>();
+
+    @Override
+    public void apply(List<BooleanFormula> pModel) {
+      models.add(ImmutableList.copyOf(pModel));
+    }
+
+    @Override
+    public List<List<BooleanFormula>> getResult() {
+      return models;
+    }
+  }
+
+  @Test
+  public void modelsOfAllCubesTest() throws SolverException, InterruptedException {
+    BooleanFormula p1 = bmgr.makeVariable("p1");
+    BooleanFormula p2 = bmgr.makeVariable("p2");
+    BooleanFormula p3 = bmgr.makeVariable("p3");
+    BooleanFormula p4 = bmgr.makeVariable("p4");
+
+    try (ProverEnvironment pe = context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+      pe.addConstraint(bmgr.or(p1, p2));
+      pe.push(bmgr.xor(p3, p4));
+      List<List<BooleanFormula>> models =
+          pe.allSat(new CollectingCallback(), ImmutableList.of(p1, p2, p3, p4));
+
+      assertThat(models).hasSize(6);
+      List<List<BooleanFormula>> cubes = new ArrayList<>();
+      for (List<BooleanFormula> model : models) {
+        assertThat(model).hasSize(4);
+        cubes.add(model.subList(0, 2));
+      }
+      // the models are reported in the order of the cubes, independent of the scheduling
+      assertThat(cubes)
+          .containsExactly(
+              ImmutableList.of(p1, p2),
+              ImmutableList.of(p1, p2),
+              ImmutableList.of(p1, bmgr.not(p2)),
+              ImmutableList.of(p1, bmgr.not(p2)),
+              ImmutableList.of(bmgr.not(p1), p2),
+              ImmutableList.of(bmgr.not(p1), p2))
+          .inOrder();
+
+      // the prover is still usable after the query
+      pe.pop();
+      assertThat(pe.isUnsat()).isFalse();
+    }
+  }
+
+  @Test
+  public void duplicatePredicatesTest() throws SolverException, InterruptedException {
+    BooleanFormula p1 = bmgr.makeVariable("p1");
+    BooleanFormula p2 = bmgr.makeVariable("p2");
+    BooleanFormula p3 = bmgr.makeVariable("p3");
+
+    try (ProverEnvironment pe = context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+      pe.addConstraint(bmgr.or(p1, p2));
+      // the last predicates are equal or complementary, but still reported by their position
+      List<List<BooleanFormula>> models =
+          pe.allSat(new CollectingCallback(), ImmutableList.of(p1, p2, p3, p3, bmgr.not(p3)));
+
+      assertThat(models).hasSize(6);
+      for (List<BooleanFormula> model : models) {
+        assertThat(model).hasSize(5);
+        assertThat(model.get(3)).isEqualTo(model.get(2));
+      }
+    }
+  }
+
+  @Test
+  public void unsatTest() throws SolverException, InterruptedException {
+    BooleanFormula p1 = bmgr.makeVariable("p1");
+    BooleanFormula p2 = bmgr.makeVariable("p2");
+    BooleanFormula p3 = bmgr.makeVariable("p3");
+
+    try (ProverEnvironment pe = context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+      pe.addConstraint(p1);
+      pe.addConstraint(bmgr.not(p1));
+      assertThat(pe.allSat(new CollectingCallback(), ImmutableList.of(p1, p2, p3))).isEmpty();
+    }
+  }
+}
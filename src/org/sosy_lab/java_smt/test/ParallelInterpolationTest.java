@@ -0,0 +1,85 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/** Tests for sequence interpolation queries whose cut points are computed in parallel. */
+public class ParallelInterpolationTest extends SolverBasedTest0 {
+
+  private static final int BLOCKS = 10;
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder()
+        .setOption("solver.parallelInterpolation", "true")
+        .setOption("solver.parallelInterpolation.threads", "3")
+        .setOption("solver.parallelInterpolation.minCutPointsPerThread", "1");
+  }
+
+  @Test
+  public void interpolantsForAllCutPointsTest() throws SolverException, InterruptedException {
+    requireInterpolation();
+    requireIntegers();
+    try (InterpolatingProverEnvironment<?> prover =
+        context.newProverEnvironmentWithInterpolation()) {
+      checkChain(prover);
+    }
+  }
+
+  private <T> void checkChain(InterpolatingProverEnvironment<T> prover)
+      throws SolverException, InterruptedException {
+    // x0 = 0, x1 = x0 + 1, ..., xN < 0
+    List<BooleanFormula> formulas = new ArrayList<>();
+    IntegerFormula previous = imgr.makeVariable("x0");
+    formulas.add(imgr.equal(previous, imgr.makeNumber(0)));
+    for (int i = 1; i <= BLOCKS; i++) {
+      IntegerFormula current = imgr.makeVariable("x" + i);
+      formulas.add(imgr.equal(current, imgr.add(previous, imgr.makeNumber(1))));
+      previous = current;
+    }
+    formulas.add(imgr.lessThan(previous, imgr.makeNumber(0)));
+
+    // a background formula that is not part of any partition
+    prover.push(imgr.greaterOrEquals(imgr.makeVariable("y"), imgr.makeNumber(0)));
+    List<Set<T>> partitions = new ArrayList<>();
+    for (BooleanFormula formula : formulas) {
+      partitions.add(ImmutableSet.of(prover.push(formula)));
+    }
+    assertThat(prover.isUnsat()).isTrue();
+
+    List<BooleanFormula> itps = prover.getSeqInterpolants(partitions);
+    assertThat(itps).hasSize(formulas.size() - 1);
+    for (int i = 1; i < formulas.size(); i++) {
+      BooleanFormula itp = itps.get(i - 1);
+      assertThatFormula(bmgr.and(formulas.subList(0, i))).implies(itp);
+      assertThatFormula(bmgr.and(itp, bmgr.and(formulas.subList(i, formulas.size()))))
+          .implies(bmgr.makeBoolean(false));
+    }
+    // the sequence is also inductive across the chunks of the parallel computation
+    for (int i = 1; i < itps.size(); i++) {
+      assertThatFormula(bmgr.and(itps.get(i - 1), formulas.get(i))).implies(itps.get(i));
+    }
+
+    // the prover is still usable after the query
+    prover.pop();
+    assertThat(prover.isUnsat()).isFalse();
+  }
+}
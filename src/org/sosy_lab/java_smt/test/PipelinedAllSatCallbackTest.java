@@ -0,0 +1,168 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.utils.PipelinedAllSatCallback;
+
+/** Test AllSAT queries whose models are handled by a consumer thread. */
+@RunWith(Parameterized.class)
+public class PipelinedAllSatCallbackTest extends SolverBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUpExecutor() {
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void shutdownExecutor() {
+    executor.shutdownNow();
+  }
+
+  private static class CollectingCallback implements AllSatCallback<Set<List<BooleanFormula>>> {
+
+    private final List<List<BooleanFormula>> models = new ArrayList<>();
+
+    @Override
+    public void apply(List<BooleanFormula> pModel) {
+      models.add(ImmutableList.copyOf(pModel));
+    }
+
+    @Override
+    public Set<List<BooleanFormula>> getResult() {
+      return ImmutableSet.copyOf(models);
+    }
+  }
+
+  @Test
+  public void pipelinedModelsTest() throws SolverException, InterruptedException {
+    BooleanFormula p1 = bmgr.makeVariable("p1");
+    BooleanFormula p2 = bmgr.makeVariable("p2");
+    BooleanFormula p3 = bmgr.makeVariable("p3");
+    List<BooleanFormula> predicates = ImmutableList.of(p1, p2, p3);
+
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+      prover.push(bmgr.or(p1, p2));
+      Set<List<BooleanFormula>> expected = prover.allSat(new CollectingCallback(), predicates);
+      assertThat(expected).isNotEmpty();
+
+      // a capacity of one model lets the solver wait for the consumer after each model
+      try (PipelinedAllSatCallback<Set<List<BooleanFormula>>> pipeline =
+          new PipelinedAllSatCallback<>(new CollectingCallback(), executor, 1)) {
+        assertThat(prover.allSat(pipeline, predicates)).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  public void consumerFailureTest() throws SolverException, InterruptedException {
+    BooleanFormula p1 = bmgr.makeVariable("p1");
+    BooleanFormula p2 = bmgr.makeVariable("p2");
+
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+      prover.push(bmgr.or(p1, p2));
+      CollectingCallback failingConsumer =
+          new CollectingCallback() {
+            @Override
+            public void apply(List<BooleanFormula> pModel) {
+              throw new IllegalArgumentException("consumer failed");
+            }
+          };
+
+      try (PipelinedAllSatCallback<Set<List<BooleanFormula>>> pipeline =
+          new PipelinedAllSatCallback<>(failingConsumer, executor, 1)) {
+        IllegalArgumentException e =
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> prover.allSat(pipeline, ImmutableList.of(p1, p2)));
+        assertThat(e).hasMessageThat().isEqualTo("consumer failed");
+      }
+    }
+  }
+
+  @Test
+  public void directExecutorTest() throws SolverException, InterruptedException {
+    BooleanFormula p1 = bmgr.makeVariable("p1");
+    BooleanFormula p2 = bmgr.makeVariable("p2");
+
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+      prover.push(bmgr.or(p1, p2));
+      try (PipelinedAllSatCallback<Set<List<BooleanFormula>>> pipeline =
+          new PipelinedAllSatCallback<>(
+              new CollectingCallback(), MoreExecutors.directExecutor(), 1)) {
+        assertThrows(
+            IllegalStateException.class, () -> prover.allSat(pipeline, ImmutableList.of(p1, p2)));
+      }
+
+      // the AllSAT query restored the assertion stack
+      assertThat(prover.size()).isEqualTo(1);
+      assertThat(prover.isUnsat()).isFalse();
+    }
+  }
+
+  @Test
+  public void saturatedExecutorTest() throws SolverException, InterruptedException {
+    BooleanFormula p1 = bmgr.makeVariable("p1");
+    BooleanFormula p2 = bmgr.makeVariable("p2");
+
+    // the only thread of the executor is blocked, thus the consumer is never started
+    CountDownLatch blocker = new CountDownLatch(1);
+    executor.execute(() -> Uninterruptibles.awaitUninterruptibly(blocker));
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+      prover.push(bmgr.or(p1, p2));
+      try (PipelinedAllSatCallback<Set<List<BooleanFormula>>> pipeline =
+          new PipelinedAllSatCallback<>(new CollectingCallback(), executor, 1)) {
+        assertThrows(
+            IllegalStateException.class, () -> prover.allSat(pipeline, ImmutableList.of(p1, p2)));
+      }
+      assertThat(prover.size()).isEqualTo(1);
+    } finally {
+      blocker.countDown();
+    }
+  }
+}
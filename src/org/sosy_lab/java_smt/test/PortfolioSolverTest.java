@@ -0,0 +1,97 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.math.BigInteger;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/** Tests for a portfolio of the Java-based solvers SMTInterpol and Princess. */
+public class PortfolioSolverTest extends SolverBasedTest0 {
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder().setOption("solver.portfolio", "SMTINTERPOL, PRINCESS");
+  }
+
+  @Test
+  public void pushAndPopTest() throws SolverException, InterruptedException {
+    BooleanFormula hard = new HardIntegerFormulaGenerator(imgr, bmgr).generate(5);
+    BooleanFormula b = bmgr.makeVariable("b");
+
+    try (ProverEnvironment pe = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      pe.addConstraint(b);
+      assertThat(pe.isUnsat()).isFalse();
+      try (Model m = pe.getModel()) {
+        assertThat(m.evaluate(b)).isTrue();
+      }
+
+      pe.push(hard);
+      assertThat(pe.size()).isEqualTo(1);
+      assertThat(pe.isUnsat()).isTrue();
+      assertThat(pe.isUnsat()).isTrue(); // again, with re-created solvers
+
+      pe.pop();
+      assertThat(pe.isUnsat()).isFalse();
+      assertThat(pe.isUnsatWithAssumptions(ImmutableList.of(bmgr.not(b)))).isTrue();
+    }
+  }
+
+  @Test
+  public void modelTest() throws SolverException, InterruptedException {
+    IntegerFormula x = imgr.makeVariable("x");
+    BooleanFormula constraint = imgr.equal(x, imgr.makeNumber(3));
+
+    try (ProverEnvironment pe = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      pe.addConstraint(constraint);
+      assertThat(pe.isUnsat()).isFalse();
+      try (Model m = pe.getModel()) {
+        assertThat(m.evaluate(x)).isEqualTo(BigInteger.valueOf(3));
+        assertThat(m.evaluate(imgr.add(x, imgr.makeNumber(1)))).isEqualTo(BigInteger.valueOf(4));
+        // the formulas of the model are translated back into the context of the portfolio
+        assertThat(m.evaluate(m.eval(x))).isEqualTo(BigInteger.valueOf(3));
+        assertThat(m.asList()).hasSize(1);
+        assertThat(m.asList().get(0).getKey()).isEqualTo(x);
+      }
+    }
+  }
+
+  @Test
+  public void unsatCoreTest() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+
+    try (ProverEnvironment pe = context.newProverEnvironment(ProverOptions.GENERATE_UNSAT_CORE)) {
+      pe.addConstraint(a);
+      pe.addConstraint(b);
+      pe.addConstraint(bmgr.not(a));
+      assertThat(pe.isUnsat()).isTrue();
+      assertThat(pe.getUnsatCore()).containsAtLeast(a, bmgr.not(a));
+    }
+  }
+
+  @Test
+  public void statisticsTest() throws SolverException, InterruptedException {
+    try (ProverEnvironment pe = context.newProverEnvironment()) {
+      pe.addConstraint(bmgr.makeVariable("a"));
+      assertThat(pe.isUnsat()).isFalse();
+    }
+    assertThat(context.getStatistics()).containsKey("portfolio wins of SMTINTERPOL");
+    assertThat(context.getStatistics()).containsKey("portfolio wins of PRINCESS");
+  }
+}
@@ -0,0 +1,114 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverPool;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+@RunWith(Parameterized.class)
+public class ProverPoolTest extends SolverBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Solvers[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  @Test
+  public void reuseWithEmptyStackTest() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+
+    try (ProverPool pool = context.newProverPool(2)) {
+      try (ProverEnvironment pe = pool.getProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+        assertThat(pe.size()).isEqualTo(0);
+        pe.addConstraint(a);
+        pe.push(bmgr.not(a));
+        assertThat(pe.size()).isEqualTo(1);
+        assertThat(pe.isUnsat()).isTrue();
+      }
+
+      try (ProverEnvironment pe = pool.getProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+        // the constraints of the previous user are gone
+        assertThat(pe.size()).isEqualTo(0);
+        pe.addConstraint(bmgr.not(a));
+        assertThat(pe.isUnsat()).isFalse();
+      }
+
+      // other options require another prover
+      try (ProverEnvironment pe = pool.getProverEnvironment()) {
+        assertThat(pe.isUnsat()).isFalse();
+      }
+
+      assertThat(pool.getStatistics()).containsEntry("created provers", "2");
+      assertThat(pool.getStatistics()).containsEntry("reused provers", "1");
+    }
+  }
+
+  @Test
+  public void closedProverTest() throws SolverException, InterruptedException {
+    try (ProverPool pool = context.newProverPool(1)) {
+      ProverEnvironment pe = pool.getProverEnvironment();
+      pe.close();
+      assertThrows(IllegalStateException.class, pe::isUnsat);
+      assertThrows(IllegalStateException.class, pe::pop);
+    }
+  }
+
+  @Test
+  public void cancelledCheckTest() {
+    try (ProverPool pool = context.newProverPool(1)) {
+      try (ProverEnvironment pe = pool.getProverEnvironment()) {
+        // the executor never runs the check, thus it is still pending when it is cancelled
+        CompletableFuture<Boolean> check = pe.isUnsatAsync(task -> {});
+        assertThat(check.cancel(true)).isTrue();
+      }
+
+      // the prover with the cancelled check was not reused
+      try (ProverEnvironment pe = pool.getProverEnvironment()) {
+        assertThat(pe.size()).isEqualTo(0);
+      }
+      assertThat(pool.getStatistics()).containsEntry("created provers", "2");
+      assertThat(pool.getStatistics()).containsEntry("reused provers", "0");
+    }
+  }
+
+  @Test
+  public void closedWithContextTest() throws InvalidConfigurationException {
+    SolverContext otherContext = factory.generateContext();
+    ProverPool pool = otherContext.newProverPool(1);
+    pool.getProverEnvironment().close();
+    otherContext.close();
+
+    // the pool and its idle prover were closed together with the context
+    assertThrows(IllegalStateException.class, pool::getProverEnvironment);
+    pool.close();
+  }
+}
@@ -0,0 +1,142 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.TruthJUnit.assume;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+@RunWith(Parameterized.class)
+public class QueryCachingTest extends SolverBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Solvers[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder().setOption("solver.cacheQueries", "true");
+  }
+
+  @Test
+  public void cacheHitAcrossProversTest() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+
+    try (ProverEnvironment pe = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      pe.addConstraint(bmgr.or(a, b));
+      pe.push(bmgr.not(a));
+      assertThat(pe.isUnsat()).isFalse();
+    }
+    assertThat(context.getStatistics()).containsEntry("query cache misses", "1");
+
+    try (ProverEnvironment pe = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      pe.push(bmgr.not(a));
+      pe.addConstraint(bmgr.or(a, b));
+      assertThat(pe.isUnsat()).isFalse();
+      assertThat(context.getStatistics()).containsEntry("query cache hits", "1");
+
+      // the model is computed by the solver after the cache hit
+      try (Model m = pe.getModel()) {
+        assertThat(m.evaluate(b)).isTrue();
+      }
+
+      pe.push(a);
+      assertThat(pe.isUnsat()).isTrue();
+      assertThat(pe.isUnsat()).isTrue();
+      assertThat(context.getStatistics()).containsEntry("query cache hits", "2");
+      assertThat(context.getStatistics()).containsEntry("query cache misses", "2");
+    }
+  }
+
+  @Test
+  public void cacheWithAssumptionsTest() throws SolverException, InterruptedException {
+    assume()
+        .withMessage("Solver %s does not support assumptions", solverToUse())
+        .that(solverToUse())
+        .isNotEqualTo(Solvers.BOOLECTOR);
+
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+
+    try (ProverEnvironment pe = context.newProverEnvironment()) {
+      pe.addConstraint(bmgr.or(a, b));
+      assertThat(pe.isUnsatWithAssumptions(ImmutableList.of(bmgr.not(a)))).isFalse();
+      assertThat(pe.isUnsatWithAssumptions(ImmutableList.of(bmgr.not(a), bmgr.not(b)))).isTrue();
+      assertThat(pe.isUnsatWithAssumptions(ImmutableList.of(bmgr.not(b), bmgr.not(a)))).isTrue();
+      assertThat(pe.isUnsat()).isFalse();
+    }
+    assertThat(context.getStatistics()).containsEntry("query cache hits", "1");
+    assertThat(context.getStatistics()).containsEntry("query cache misses", "3");
+  }
+
+  @Test
+  public void cachedUnsatCoreTest() throws SolverException, InterruptedException {
+    assume()
+        .withMessage("Solver %s does not support unsat cores", solverToUse())
+        .that(solverToUse())
+        .isNotEqualTo(Solvers.BOOLECTOR);
+
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+
+    for (int i = 0; i < 2; i++) {
+      try (ProverEnvironment pe = context.newProverEnvironment(ProverOptions.GENERATE_UNSAT_CORE)) {
+        pe.addConstraint(a);
+        pe.addConstraint(b);
+        pe.addConstraint(bmgr.not(a));
+        assertThat(pe.isUnsat()).isTrue();
+        assertThat(pe.getUnsatCore()).containsAtLeast(a, bmgr.not(a));
+      }
+    }
+    assertThat(context.getStatistics()).containsEntry("query cache hits", "1");
+  }
+
+  @Test
+  public void cachedModelRequiresOptionTest() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+
+    try (ProverEnvironment pe = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      pe.addConstraint(a);
+      assertThat(pe.isUnsat()).isFalse();
+      assertThat(pe.getModelAssignments()).isNotEmpty();
+    }
+
+    // the cached model must not be served to a prover without model generation
+    try (ProverEnvironment pe = context.newProverEnvironment()) {
+      pe.addConstraint(a);
+      assertThat(pe.isUnsat()).isFalse();
+      assertThat(context.getStatistics()).containsEntry("query cache hits", "1");
+      assertThrows(IllegalStateException.class, pe::getModelAssignments);
+    }
+  }
+}
@@ -0,0 +1,156 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.TruthJUnit.assume;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.utils.SmtLibPrinter;
+
+@RunWith(Parameterized.class)
+public class SmtLibPrinterTest extends SolverBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter public Solvers solver;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solver;
+  }
+
+  private String print(BooleanFormula f) throws IOException {
+    StringWriter out = new StringWriter();
+    new SmtLibPrinter(mgr, out).print(f);
+    return out.toString();
+  }
+
+  @Test
+  public void printAndParseIntegerTest() throws IOException, SolverException, InterruptedException {
+    requireParser();
+    requireIntegers();
+
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y y");
+    IntegerFormula fx = fmgr.declareAndCallUF("f", FormulaType.IntegerType, x);
+    IntegerFormula sum = imgr.add(fx, imgr.multiply(y, imgr.makeNumber(-3)));
+    BooleanFormula formula =
+        bmgr.and(
+            imgr.lessThan(sum, imgr.makeNumber(7)),
+            bmgr.or(imgr.equal(sum, x), bmgr.makeVariable("b")),
+            bmgr.not(imgr.equal(fx, imgr.makeNumber(0))));
+
+    String dump = print(formula);
+    assertThat(Splitter.on("(declare-fun f ").splitToList(dump)).hasSize(2);
+    assertThat(dump).contains("(declare-fun |y y| () Int)");
+    assertThatFormula(mgr.parse(dump)).isEquivalentTo(formula);
+  }
+
+  @Test
+  public void printAndParseBitvectorTest()
+      throws IOException, SolverException, InterruptedException {
+    requireParser();
+    requireBitvectors();
+
+    BitvectorFormula a = bvmgr.makeVariable(8, "a");
+    BitvectorFormula b = bvmgr.extend(a, 8, true);
+    BooleanFormula formula =
+        bmgr.and(
+            bvmgr.lessThan(b, bvmgr.makeBitvector(16, -5), true),
+            bvmgr.equal(bvmgr.add(a, bvmgr.makeBitvector(8, 1)), bvmgr.not(a)));
+
+    assertThatFormula(mgr.parse(print(formula))).isEquivalentTo(formula);
+  }
+
+  @Test
+  public void printConstantTest() throws IOException {
+    // Boolector represents Boolean constants as bitvectors
+    assume().that(solver).isNotEqualTo(Solvers.BOOLECTOR);
+    assertThat(print(bmgr.makeTrue())).isEqualTo("(assert true)\n");
+  }
+
+  @Test
+  public void printSeveralFormulasTest() throws IOException, SolverException, InterruptedException {
+    requireParser();
+    requireIntegers();
+
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    IntegerFormula sum = imgr.add(x, y);
+    BooleanFormula first = imgr.lessThan(sum, imgr.makeNumber(7));
+    BooleanFormula second = imgr.greaterThan(sum, x);
+
+    StringWriter out = new StringWriter();
+    SmtLibPrinter printer = new SmtLibPrinter(mgr, out);
+    printer.print(first);
+    printer.print(second);
+    String dump = out.toString();
+
+    // symbols are declared only once for the whole script
+    assertThat(Splitter.on("(declare-fun x ").splitToList(dump)).hasSize(2);
+    assertThat(Splitter.on("(declare-fun y ").splitToList(dump)).hasSize(2);
+    assertThat(Splitter.on("(assert ").splitToList(dump)).hasSize(3);
+    assertThatFormula(mgr.parse(dump)).isEquivalentTo(bmgr.and(first, second));
+  }
+
+  @Test
+  public void printReservedSymbolTest() throws IOException {
+    requireIntegers();
+
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula reserved = imgr.makeVariable(".javasmt_def_0");
+    BooleanFormula formula =
+        bmgr.and(imgr.lessThan(x, imgr.makeNumber(3)), imgr.equal(x, reserved));
+
+    StringWriter out = new StringWriter();
+    SmtLibPrinter printer = new SmtLibPrinter(mgr, out);
+    assertThrows(UnsupportedOperationException.class, () -> printer.print(formula));
+    assertThat(out.toString()).isEmpty();
+  }
+
+  @Test
+  public void printUnsupportedFormulaTest() throws IOException {
+    requireIntegers();
+    requireQuantifiers();
+
+    IntegerFormula x = imgr.makeVariable("x");
+    BooleanFormula atom = imgr.lessThan(x, imgr.makeNumber(3));
+    BooleanFormula quantified =
+        qmgr.forall(ImmutableList.of(x), imgr.greaterOrEquals(x, imgr.makeNumber(0)));
+
+    StringWriter out = new StringWriter();
+    SmtLibPrinter printer = new SmtLibPrinter(mgr, out);
+    assertThrows(
+        UnsupportedOperationException.class, () -> printer.print(bmgr.and(atom, quantified)));
+    assertThat(out.toString()).isEmpty();
+
+    // the printer can still be used after a rejected formula
+    printer.print(atom);
+    assertThat(out.toString()).contains("(assert ");
+  }
+}
@@ -12,12 +12,17 @@ import static com.google.common.collect.Iterables.getLast;
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
 import static com.google.common.truth.TruthJUnit.assume;
+import static org.junit.Assert.assertThrows;
 
 import com.google.common.base.Splitter;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multiset;
 import com.google.common.truth.TruthJUnit;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Supplier;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -230,6 +235,45 @@ public class SolverFormulaIOTest extends SolverBasedTest0 {
     checkThatDumpIsParseable(formDump);
   }
 
+  @Test
+  public void parseAssertionsFromReaderTest()
+      throws IOException, SolverException, InterruptedException {
+    requireParser();
+    requireIntegers();
+    String input =
+        "(set-logic QF_UFLIA) ; comment with (unbalanced parenthesis\n"
+            + "(declare-fun |x y| () Int)\n"
+            + "(declare-fun b () Bool)\n"
+            + "(declare-fun f (Int) Int)\n"
+            + "(define-fun g ((z Int)) Int (+ (f z) |x y|))\n"
+            + "(assert (= |x y| 1))\n"
+            + "(push 1)\n"
+            + "(assert (> (g 2) 3))\n"
+            + "(assert b)\n"
+            + "(check-sat)\n";
+
+    List<BooleanFormula> assertions = new ArrayList<>();
+    mgr.parseAssertions(new StringReader(input), assertions::add);
+    assertThat(assertions).hasSize(3);
+
+    IntegerFormula x = imgr.makeVariable("x y");
+    IntegerFormula fOf2 = fmgr.declareAndCallUF("f", FormulaType.IntegerType, imgr.makeNumber(2));
+    assertThatFormula(assertions.get(0)).isEquivalentTo(imgr.equal(x, imgr.makeNumber(1)));
+    assertThatFormula(assertions.get(1))
+        .isEquivalentTo(imgr.greaterThan(imgr.add(fOf2, x), imgr.makeNumber(3)));
+    assertThatFormula(assertions.get(2)).isEquivalentTo(bmgr.makeVariable("b"));
+
+    assertThatFormula(mgr.parse(new StringReader(input))).isEquivalentTo(bmgr.and(assertions));
+  }
+
+  @Test
+  public void parseAssertionsFromInvalidReaderTest() {
+    requireParser();
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> mgr.parseAssertions(new StringReader("(assert true"), f -> {}));
+  }
+
   @Test
   public void parseMathSatTestParseFirst1() throws SolverException, InterruptedException {
     requireParser();
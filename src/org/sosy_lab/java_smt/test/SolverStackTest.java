@@ -678,4 +678,39 @@ public class SolverStackTest extends SolverBasedTest0 {
       }
     }
   }
+
+  @Test
+  public void separationLogicStackTest() throws SolverException, InterruptedException {
+    assume()
+        .withMessage("Solver does not support separation logic")
+        .that(solver)
+        .isAnyOf(Solvers.CVC4, Solvers.CVC5);
+    assume().that(useInterpolatingEnvironment).isFalse();
+
+    IntegerFormula x = imgr.makeVariable("sl_x");
+    IntegerFormula y = imgr.makeVariable("sl_y");
+    IntegerFormula z = imgr.makeVariable("sl_z");
+    BooleanFormula ptoY = mgr.getSLFormulaManager().makePointsTo(x, y);
+    BooleanFormula ptoZ = mgr.getSLFormulaManager().makePointsTo(x, z);
+
+    try (BasicProverEnvironment<?> stack =
+        newEnvironmentForTest(
+            ProverOptions.ENABLE_SEPARATION_LOGIC, ProverOptions.GENERATE_MODELS)) {
+      stack.push(imgr.equal(y, imgr.makeNumber(1)));
+      assertThat(stack).isSatisfiable();
+      // repeated queries without changes on the stack
+      assertThat(stack).isSatisfiable();
+
+      stack.push(mgr.getSLFormulaManager().makeStar(ptoY, ptoZ));
+      assertThat(stack).isUnsatisfiable();
+      assertThat(stack).isUnsatisfiable();
+
+      stack.pop();
+      stack.push(ptoY);
+      assertThat(stack).isSatisfiable();
+      try (Model model = stack.getModel()) {
+        assertThat(model.evaluate(y)).isEqualTo(BigInteger.ONE);
+      }
+    }
+  }
 }
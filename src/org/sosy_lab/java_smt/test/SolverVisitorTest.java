@@ -10,6 +10,7 @@ package org.sosy_lab.java_smt.test;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.TruthJUnit.assume;
+import static org.junit.Assert.assertThrows;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.truth.Truth;
@@ -36,6 +37,7 @@ import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.FloatingPointFormula;
 import org.sosy_lab.java_smt.api.FloatingPointRoundingMode;
 import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaTransformationSession;
 import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.FormulaType.BitvectorType;
 import org.sosy_lab.java_smt.api.FormulaType.FloatingPointType;
@@ -889,6 +891,47 @@ public class SolverVisitorTest extends SolverBasedTest0 {
         .isEquivalentTo(imgr.equal(imgr.makeVariable("y'"), imgr.makeNumber(1)));
   }
 
+  @Test
+  public void transformationSessionTest() {
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+    final List<String> renamed = new ArrayList<>();
+    FormulaTransformationVisitor renaming =
+        new FormulaTransformationVisitor(mgr) {
+          @Override
+          public Formula visitFreeVariable(Formula formula, String name) {
+            renamed.add(name);
+            return mgr.makeVariable(mgr.getFormulaType(formula), name + "'");
+          }
+        };
+
+    BooleanFormula f1 = bmgr.and(a, b);
+    BooleanFormula f2 = bmgr.or(f1, c);
+    FormulaTransformationSession session = mgr.newTransformationSession(renaming);
+    try {
+      assertThatFormula(session.transform(f1))
+          .isEquivalentTo(bmgr.and(bmgr.makeVariable("a'"), bmgr.makeVariable("b'")));
+      assertThatFormula(session.transform(f2))
+          .isEquivalentTo(
+              bmgr.or(
+                  bmgr.and(bmgr.makeVariable("a'"), bmgr.makeVariable("b'")),
+                  bmgr.makeVariable("c'")));
+      // the shared subformula is only transformed once
+      assertThat(renamed).containsExactly("a", "b", "c");
+    } finally {
+      session.close();
+    }
+    assertThrows(IllegalStateException.class, () -> session.transform(f1));
+
+    // a new session starts without results
+    try (FormulaTransformationSession session2 = mgr.newTransformationSession(renaming)) {
+      assertThatFormula(session2.transform(f1))
+          .isEquivalentTo(bmgr.and(bmgr.makeVariable("a'"), bmgr.makeVariable("b'")));
+    }
+    assertThat(renamed).hasSize(5);
+  }
+
   @Test
   public void booleanRecursiveTraversalTest() {
     BooleanFormula f =
@@ -0,0 +1,61 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/** Tests for provers of a synchronized context that run in pooled separate contexts. */
+public class SynchronizedSeperateProversTest extends SolverBasedTest0 {
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder()
+        .setOption("solver.synchronize", "true")
+        .setOption("solver.synchronized.useSeperateProvers", "true")
+        .setOption("solver.synchronized.maxUnusedSeperateContexts", "1");
+  }
+
+  @Test
+  public void reuseContextOfClosedProverTest() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+
+    try (ProverEnvironment pe = context.newProverEnvironment()) {
+      pe.addConstraint(a);
+      assertThat(pe.isUnsat()).isFalse();
+    }
+
+    // the next prover re-uses the context, but must not see the old constraints
+    try (ProverEnvironment pe = context.newProverEnvironment()) {
+      pe.addConstraint(bmgr.not(a));
+      assertThat(pe.isUnsat()).isFalse();
+    }
+  }
+
+  @Test
+  public void severalOpenProversTest() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+
+    try (ProverEnvironment pe1 = context.newProverEnvironment();
+        ProverEnvironment pe2 = context.newProverEnvironment();
+        ProverEnvironment pe3 = context.newProverEnvironment()) {
+      pe1.addConstraint(a);
+      pe2.addConstraint(bmgr.not(a));
+      pe3.addConstraint(bmgr.and(a, bmgr.not(a)));
+      assertThat(pe1.isUnsat()).isFalse();
+      assertThat(pe2.isUnsat()).isFalse();
+      assertThat(pe3.isUnsat()).isTrue();
+    }
+  }
+}
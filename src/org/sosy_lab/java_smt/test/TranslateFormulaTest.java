@@ -30,6 +30,7 @@ import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.BooleanFormulaManager;
 import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.IntegerFormulaManager;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.SolverContext;
@@ -132,6 +133,47 @@ public class TranslateFormulaTest {
     assertUsing(to).that(inputTo).isEquivalentTo(translatedInput);
   }
 
+  @Test
+  public void testTranslatingWithoutParser() throws SolverException, InterruptedException {
+    assume().that(translateTo).isNotEqualTo(Solvers.BOOLECTOR);
+
+    BooleanFormula inputFrom = createTestFormulaWithUF(managerFrom);
+    BooleanFormula inputTo = createTestFormulaWithUF(managerTo);
+    BooleanFormula translatedInput = managerTo.translateFrom(inputFrom, managerFrom);
+    assertUsing(to).that(inputTo).isEquivalentTo(translatedInput);
+
+    // There is no SMT-LIB fallback for terms, thus the term can only be rebuilt directly. This
+    // also holds for targets without a parser, which could not use the fallback for formulas.
+    IntegerFormula termFrom = createTestTerm(managerFrom);
+    IntegerFormula termTo = createTestTerm(managerTo);
+    IntegerFormula translatedTerm = managerTo.translateFrom(termFrom, managerFrom);
+    assertUsing(to)
+        .that(managerTo.getIntegerFormulaManager().equal(termTo, translatedTerm))
+        .isTautological();
+  }
+
+  @Test
+  public void testTranslatingNarySubtraction() throws SolverException, InterruptedException {
+    requireParserFrom();
+    requireIntegers();
+    assume().that(translateTo).isNotEqualTo(Solvers.BOOLECTOR);
+
+    // some solvers keep (- a b c) as one application with three operands
+    BooleanFormula inputFrom =
+        managerFrom.parse(
+            "(declare-fun a () Int)(declare-fun b () Int)(declare-fun c () Int)"
+                + "(assert (= (- a b c) 1))");
+    IntegerFormulaManager ifmgr = managerTo.getIntegerFormulaManager();
+    IntegerFormula a = ifmgr.makeVariable("a");
+    IntegerFormula b = ifmgr.makeVariable("b");
+    IntegerFormula c = ifmgr.makeVariable("c");
+    BooleanFormula inputTo =
+        ifmgr.equal(ifmgr.subtract(ifmgr.subtract(a, b), c), ifmgr.makeNumber(1));
+    BooleanFormula translatedInput = managerTo.translateFrom(inputFrom, managerFrom);
+
+    assertUsing(to).that(inputTo).isEquivalentTo(translatedInput);
+  }
+
   @Test
   public void testTranslatingForIContextdentity() throws SolverException, InterruptedException {
     assume().that(translateTo).isEqualTo(translateFrom);
@@ -172,6 +214,31 @@ public class TranslateFormulaTest {
     assertUsing(from).that(inputFrom).isEquivalentTo(translatedReverseInput);
   }
 
+  private IntegerFormula createTestTerm(FormulaManager mgr) {
+    requireIntegers();
+
+    IntegerFormulaManager ifmgr = mgr.getIntegerFormulaManager();
+    IntegerFormula x = ifmgr.makeVariable("x");
+    return ifmgr.add(
+        mgr.getUFManager().declareAndCallUF("f", FormulaType.IntegerType, x),
+        ifmgr.multiply(x, ifmgr.makeNumber(2)));
+  }
+
+  private BooleanFormula createTestFormulaWithUF(FormulaManager mgr) {
+    requireIntegers();
+
+    BooleanFormulaManager bfmgr = mgr.getBooleanFormulaManager();
+    IntegerFormulaManager ifmgr = mgr.getIntegerFormulaManager();
+    IntegerFormula x = ifmgr.makeVariable("x");
+    IntegerFormula fx =
+        mgr.getUFManager().declareAndCallUF("f", FormulaType.IntegerType, ifmgr.add(x, x));
+    // the shared subformula fx is translated only once
+    return bfmgr.and(
+        ifmgr.lessThan(fx, ifmgr.makeNumber(5)),
+        bfmgr.not(ifmgr.equal(fx, ifmgr.subtract(x, ifmgr.makeNumber(-3)))),
+        bfmgr.ifThenElse(bfmgr.makeVariable("b"), ifmgr.greaterOrEquals(fx, x), bfmgr.makeTrue()));
+  }
+
   private BooleanFormula createTestFormula(FormulaManager mgr) {
     requireIntegers();
 
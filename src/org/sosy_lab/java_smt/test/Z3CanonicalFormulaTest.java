@@ -0,0 +1,41 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+
+/** Test the reuse of Z3 formula objects for equal ASTs. */
+public class Z3CanonicalFormulaTest extends SolverBasedTest0 {
+
+  @Override
+  protected Solvers solverToUse() {
+    return Solvers.Z3;
+  }
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder().setOption("solver.z3.canonicalizeFormulas", "true");
+  }
+
+  @Test
+  public void testEqualFormulasAreIdentical() {
+    IntegerFormula x = imgr.makeVariable("x");
+    BooleanFormula f = imgr.lessThan(x, imgr.makeNumber(1));
+
+    assertThat(imgr.makeVariable("x")).isSameInstanceAs(x);
+    assertThat(imgr.lessThan(imgr.makeVariable("x"), imgr.makeNumber(1))).isSameInstanceAs(f);
+    assertThat(mgr.extractVariables(f).get("x")).isSameInstanceAs(x);
+  }
+}
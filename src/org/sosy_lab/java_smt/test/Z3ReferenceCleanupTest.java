@@ -0,0 +1,69 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.sosy_lab.java_smt.test.ProverEnvironmentSubject.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/** Test the release of Z3 ASTs via phantom references in a background thread. */
+public class Z3ReferenceCleanupTest extends SolverBasedTest0 {
+
+  @Override
+  protected Solvers solverToUse() {
+    return Solvers.Z3;
+  }
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder()
+        .setOption("solver.z3.usePhantomReferences", "true")
+        .setOption("solver.z3.releaseReferencesInBackground", "true");
+  }
+
+  @Test
+  public void testDiscardedFormulasWithBackgroundCleanup()
+      throws SolverException, InterruptedException {
+    IntegerFormula x = imgr.makeVariable("x");
+    BooleanFormula kept = imgr.equal(x, imgr.makeNumber(42));
+    BooleanFormula discarded = bmgr.makeTrue();
+    for (int i = 0; i < 10_000; i++) {
+      // overwritten right away, released whenever the garbage collector finds them
+      discarded = imgr.lessThan(imgr.add(x, imgr.makeNumber(i)), imgr.makeNumber(i + 1));
+    }
+
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(kept);
+      prover.push(discarded);
+      assertThat(prover).isSatisfiable();
+    }
+
+    // the garbage collector gives no guarantee when it enqueues the references, thus we retry
+    long releasedAsts = getReleasedAsts();
+    for (int i = 0; i < 100 && releasedAsts == 0; i++) {
+      System.gc();
+      Thread.sleep(50);
+      releasedAsts = getReleasedAsts();
+    }
+    assertThat(releasedAsts).isGreaterThan(0L);
+  }
+
+  private long getReleasedAsts() {
+    String value = context.getStatistics().get("phantomReferences.releasedAsts");
+    assertThat(value).isNotNull();
+    return Long.parseLong(value);
+  }
+}
@@ -0,0 +1,229 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+/**
+ * An {@link AllSatCallback} that passes the models of an AllSAT query through a bounded queue to
+ * another callback, which runs on a consumer thread. Thus, the solver already continues with the
+ * next model while the consumer handles the previous one.
+ *
+ * <p>If the queue is full, the solver waits for the consumer. If the consumer throws an exception,
+ * the AllSAT query is aborted with this exception at the next model, or at the latest when the
+ * result is requested. The models are handed to the consumer in the order of the solver.
+ *
+ * <p>The executor has to run the consumer on another thread than the solver, and it has to start
+ * the consumer in time. Otherwise, e.g., for a direct or saturated executor, the AllSAT query fails
+ * with an {@link IllegalStateException} instead of waiting forever for the consumer.
+ *
+ * <p>The consumer runs concurrently to the solver. It may store the given formulas and pass them
+ * on, but it must not call any method of them that accesses the solver, e.g., {@code equals} and
+ * {@code toString} of Z3 formulas call the native solver. It must also not use the formula manager
+ * or any prover of the solver context, unless the context is synchronized.
+ *
+ * <p>The callback should be closed after the AllSAT query, such that the consumer thread is also
+ * released if the solver fails:
+ *
+ * <pre>{@code
+ * try (PipelinedAllSatCallback<R> pipe = new PipelinedAllSatCallback<>(callback, executor, 16)) {
+ *   R result = prover.allSat(pipe, predicates);
+ * }
+ * }</pre>
+ *
+ * @param <R> The result type of the consumer, passed through by {@link #getResult}.
+ */
+public final class PipelinedAllSatCallback<R> implements AllSatCallback<R>, AutoCloseable {
+
+  /** How long the solver waits for a free slot in the queue before checking the consumer. */
+  private static final long CONSUMER_TIMEOUT_MILLIS = 1000;
+
+  private final AllSatCallback<R> consumer;
+  private final Executor executor;
+  private final BlockingQueue<List<BooleanFormula>> queue;
+
+  /** Marks the end of the models in the queue, compared by identity. */
+  private final List<BooleanFormula> endOfModels = new ArrayList<>(0);
+
+  /** The running consumer, started with the first model. */
+  private @Nullable CompletableFuture<Void> consumerTask = null;
+
+  /**
+   * Set by the consumer when it starts, or by the solver when it gives up on a consumer that was
+   * never started by the executor. Thus, a late consumer never waits for models that do not come.
+   */
+  private final AtomicBoolean consumerStarted = new AtomicBoolean(false);
+
+  /** The first exception of the consumer. */
+  private volatile @Nullable Throwable failure = null;
+
+  /** Whether the consumer should skip all remaining models. */
+  private volatile boolean cancelled = false;
+
+  /**
+   * Creates a new callback.
+   *
+   * @param pConsumer the callback that handles the models on a consumer thread.
+   * @param pExecutor the executor for the consumer thread, which is blocked until all models are
+   *     handled.
+   * @param pCapacity the number of models that the solver may compute ahead of the consumer.
+   */
+  public PipelinedAllSatCallback(AllSatCallback<R> pConsumer, Executor pExecutor, int pCapacity) {
+    checkArgument(pCapacity > 0, "capacity must be positive");
+    consumer = checkNotNull(pConsumer);
+    executor = checkNotNull(pExecutor);
+    queue = new ArrayBlockingQueue<>(pCapacity);
+  }
+
+  @Override
+  public void apply(List<BooleanFormula> model) {
+    if (consumerTask == null) {
+      final Thread solverThread = Thread.currentThread();
+      consumerTask = CompletableFuture.runAsync(() -> consumeModels(solverThread), executor);
+    }
+    if (failure != null) {
+      stopConsumer();
+      rethrowFailure();
+    }
+    // the model might be a lazy view on solver data, thus we copy it in the solver thread
+    put(ImmutableList.copyOf(model));
+  }
+
+  private void consumeModels(Thread solverThread) {
+    if (!consumerStarted.compareAndSet(false, true)) {
+      return; // the solver has already given up on this consumer
+    }
+    if (Thread.currentThread() == solverThread) {
+      failure = new IllegalStateException("consumer must not run in the thread of the solver");
+      return;
+    }
+    List<BooleanFormula> model = Uninterruptibles.takeUninterruptibly(queue);
+    while (model != endOfModels) {
+      if (failure == null && !cancelled) {
+        try {
+          consumer.apply(model);
+        } catch (RuntimeException | Error e) {
+          failure = e;
+        }
+      }
+      // after a failure, we still drain the queue, such that the solver never blocks
+      model = Uninterruptibles.takeUninterruptibly(queue);
+    }
+  }
+
+  /**
+   * Add the model to the queue. While the queue is full, check that the consumer is still alive,
+   * such that the solver does not wait forever for a consumer that never takes the model.
+   */
+  private void put(List<BooleanFormula> model) {
+    final CompletableFuture<Void> task = checkNotNull(consumerTask);
+    try {
+      while (!queue.offer(model, CONSUMER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+        if (consumerStarted.compareAndSet(false, true)) {
+          consumerTask = null;
+          task.cancel(false);
+          throw new IllegalStateException(
+              "consumer of the AllSAT models was not started, the executor might be saturated");
+        }
+        if (task.isDone()) {
+          consumerTask = null;
+          rethrowFailure();
+          throw new IllegalStateException("consumer of the AllSAT models has terminated");
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while waiting for the consumer", e);
+    }
+  }
+
+  /** Send the end marker to the consumer, if it was started. */
+  private void stopConsumer() {
+    final CompletableFuture<Void> task = consumerTask;
+    if (task != null) {
+      if (!task.isDone()) {
+        put(endOfModels);
+      }
+      consumerTask = null;
+    }
+  }
+
+  /** Abort the AllSAT query if the consumer has failed. */
+  private void rethrowFailure() {
+    final Throwable t = failure;
+    if (t != null) {
+      Throwables.throwIfUnchecked(t);
+      throw new IllegalStateException(t);
+    }
+  }
+
+  @Override
+  public R getResult() throws InterruptedException {
+    checkState(!cancelled, "callback was already closed");
+    final CompletableFuture<Void> task = consumerTask;
+    stopConsumer();
+    if (task != null) {
+      while (!isFinished(task)) {
+        if (consumerStarted.compareAndSet(false, true)) {
+          task.cancel(false);
+          throw new IllegalStateException(
+              "consumer of the AllSAT models was not started, the executor might be saturated");
+        }
+      }
+    }
+    rethrowFailure();
+    return consumer.getResult();
+  }
+
+  /** Wait for the consumer to finish, returns false if it did not finish within the timeout. */
+  private static boolean isFinished(CompletableFuture<Void> task) throws InterruptedException {
+    try {
+      task.get(CONSUMER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+      return true;
+    } catch (TimeoutException e) {
+      return false;
+    } catch (ExecutionException e) {
+      // consumeModels itself does not throw
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /** Release the consumer thread without handling the remaining models. */
+  @Override
+  public void close() {
+    cancelled = true;
+    final CompletableFuture<Void> task = consumerTask;
+    consumerTask = null;
+    if (task != null && !task.isDone()) {
+      // Only this thread adds to the queue, thus the end marker always fits after clearing it,
+      // and close() never waits for the consumer, even if the solver thread was interrupted.
+      queue.clear();
+      queue.add(endOfModels);
+    }
+  }
+}
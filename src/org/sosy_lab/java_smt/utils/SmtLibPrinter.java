@@ -0,0 +1,466 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2023 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.BitvectorType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+
+/**
+ * Writes formulas in SMT-LIB2 format directly to an {@link Appendable}, e.g., a {@link
+ * java.io.Writer} for a file, without building the whole text in memory.
+ *
+ * <p>In contrast to {@link FormulaManager#dumpFormula}, which depends on the solver and often
+ * creates one String for the whole formula, this printer visits the formula and writes one command
+ * per subformula. Each application of a function is defined once via <code>define-fun</code> and
+ * referenced by name afterwards, such that shared subformulas are printed only once. Declarations
+ * of symbols are written when they are needed for the first time. The memory consumption is linear
+ * in the number of distinct subformulas, not in the size of the output.
+ *
+ * <p>A printer writes one SMT-LIB2 script. All formulas printed with the same printer share their
+ * declarations and definitions, i.e., each symbol is declared once and subformulas that were
+ * already printed for an earlier formula are referenced instead of being printed again.
+ *
+ * <p>Only operators with a counterpart in SMT-LIB2 are supported, quantifiers and some special
+ * operators like the extraction of bits lead to an {@link UnsupportedOperationException}. The
+ * names of definitions start with <code>.javasmt_def_</code>, thus symbols with this prefix are
+ * not supported either. Each formula is checked completely before anything is written for it.
+ */
+public class SmtLibPrinter {
+
+  private static final Pattern SIMPLE_SYMBOL =
+      Pattern.compile("[a-zA-Z~!@$%^&*_+=<>.?/\\-][0-9a-zA-Z~!@$%^&*_+=<>.?/\\-]*");
+
+  private static final ImmutableSet<String> RESERVED_WORDS =
+      ImmutableSet.of("_", "!", "as", "let", "exists", "forall", "match", "par");
+
+  /** Prefix for the names of definitions, reserved for the printer. */
+  private static final String DEFINITION_PREFIX = ".javasmt_def_";
+
+  private static final ImmutableMap<FunctionDeclarationKind, String> OPERATORS =
+      ImmutableMap.<FunctionDeclarationKind, String>builder()
+          .put(FunctionDeclarationKind.AND, "and")
+          .put(FunctionDeclarationKind.OR, "or")
+          .put(FunctionDeclarationKind.NOT, "not")
+          .put(FunctionDeclarationKind.IFF, "=")
+          .put(FunctionDeclarationKind.ITE, "ite")
+          .put(FunctionDeclarationKind.XOR, "xor")
+          .put(FunctionDeclarationKind.IMPLIES, "=>")
+          .put(FunctionDeclarationKind.DISTINCT, "distinct")
+          .put(FunctionDeclarationKind.EQ, "=")
+          .put(FunctionDeclarationKind.STORE, "store")
+          .put(FunctionDeclarationKind.SELECT, "select")
+          .put(FunctionDeclarationKind.UMINUS, "-")
+          .put(FunctionDeclarationKind.SUB, "-")
+          .put(FunctionDeclarationKind.ADD, "+")
+          .put(FunctionDeclarationKind.MUL, "*")
+          .put(FunctionDeclarationKind.MODULO, "mod")
+          .put(FunctionDeclarationKind.LT, "<")
+          .put(FunctionDeclarationKind.LTE, "<=")
+          .put(FunctionDeclarationKind.GT, ">")
+          .put(FunctionDeclarationKind.GTE, ">=")
+          .put(FunctionDeclarationKind.FLOOR, "to_int")
+          .put(FunctionDeclarationKind.TO_REAL, "to_real")
+          .put(FunctionDeclarationKind.BV_CONCAT, "concat")
+          .put(FunctionDeclarationKind.BV_NOT, "bvnot")
+          .put(FunctionDeclarationKind.BV_NEG, "bvneg")
+          .put(FunctionDeclarationKind.BV_OR, "bvor")
+          .put(FunctionDeclarationKind.BV_AND, "bvand")
+          .put(FunctionDeclarationKind.BV_XOR, "bvxor")
+          .put(FunctionDeclarationKind.BV_SUB, "bvsub")
+          .put(FunctionDeclarationKind.BV_ADD, "bvadd")
+          .put(FunctionDeclarationKind.BV_SDIV, "bvsdiv")
+          .put(FunctionDeclarationKind.BV_UDIV, "bvudiv")
+          .put(FunctionDeclarationKind.BV_SREM, "bvsrem")
+          .put(FunctionDeclarationKind.BV_UREM, "bvurem")
+          .put(FunctionDeclarationKind.BV_MUL, "bvmul")
+          .put(FunctionDeclarationKind.BV_ULT, "bvult")
+          .put(FunctionDeclarationKind.BV_SLT, "bvslt")
+          .put(FunctionDeclarationKind.BV_ULE, "bvule")
+          .put(FunctionDeclarationKind.BV_SLE, "bvsle")
+          .put(FunctionDeclarationKind.BV_UGT, "bvugt")
+          .put(FunctionDeclarationKind.BV_SGT, "bvsgt")
+          .put(FunctionDeclarationKind.BV_UGE, "bvuge")
+          .put(FunctionDeclarationKind.BV_SGE, "bvsge")
+          .put(FunctionDeclarationKind.BV_EQ, "=")
+          .put(FunctionDeclarationKind.BV_SHL, "bvshl")
+          .put(FunctionDeclarationKind.BV_LSHR, "bvlshr")
+          .put(FunctionDeclarationKind.BV_ASHR, "bvashr")
+          .put(FunctionDeclarationKind.FP_NEG, "fp.neg")
+          .put(FunctionDeclarationKind.FP_ABS, "fp.abs")
+          .put(FunctionDeclarationKind.FP_MAX, "fp.max")
+          .put(FunctionDeclarationKind.FP_MIN, "fp.min")
+          .put(FunctionDeclarationKind.FP_SQRT, "fp.sqrt")
+          .put(FunctionDeclarationKind.FP_SUB, "fp.sub")
+          .put(FunctionDeclarationKind.FP_ADD, "fp.add")
+          .put(FunctionDeclarationKind.FP_DIV, "fp.div")
+          .put(FunctionDeclarationKind.FP_MUL, "fp.mul")
+          .put(FunctionDeclarationKind.FP_LT, "fp.lt")
+          .put(FunctionDeclarationKind.FP_LE, "fp.leq")
+          .put(FunctionDeclarationKind.FP_GE, "fp.geq")
+          .put(FunctionDeclarationKind.FP_GT, "fp.gt")
+          .put(FunctionDeclarationKind.FP_EQ, "fp.eq")
+          .put(FunctionDeclarationKind.FP_ROUND_EVEN, "RNE")
+          .put(FunctionDeclarationKind.FP_ROUND_AWAY, "RNA")
+          .put(FunctionDeclarationKind.FP_ROUND_POSITIVE, "RTP")
+          .put(FunctionDeclarationKind.FP_ROUND_NEGATIVE, "RTN")
+          .put(FunctionDeclarationKind.FP_ROUND_ZERO, "RTZ")
+          .put(FunctionDeclarationKind.FP_ROUND_TO_INTEGRAL, "fp.roundToIntegral")
+          .put(FunctionDeclarationKind.FP_IS_NAN, "fp.isNaN")
+          .put(FunctionDeclarationKind.FP_IS_INF, "fp.isInfinite")
+          .put(FunctionDeclarationKind.FP_IS_ZERO, "fp.isZero")
+          .put(FunctionDeclarationKind.FP_IS_NEGATIVE, "fp.isNegative")
+          .put(FunctionDeclarationKind.FP_IS_SUBNORMAL, "fp.isSubnormal")
+          .put(FunctionDeclarationKind.FP_IS_NORMAL, "fp.isNormal")
+          .put(FunctionDeclarationKind.STR_CONCAT, "str.++")
+          .put(FunctionDeclarationKind.STR_PREFIX, "str.prefixof")
+          .put(FunctionDeclarationKind.STR_SUFFIX, "str.suffixof")
+          .put(FunctionDeclarationKind.STR_CONTAINS, "str.contains")
+          .put(FunctionDeclarationKind.STR_SUBSTRING, "str.substr")
+          .put(FunctionDeclarationKind.STR_REPLACE, "str.replace")
+          .put(FunctionDeclarationKind.STR_REPLACE_ALL, "str.replace_all")
+          .put(FunctionDeclarationKind.STR_CHAR_AT, "str.at")
+          .put(FunctionDeclarationKind.STR_LENGTH, "str.len")
+          .put(FunctionDeclarationKind.STR_INDEX_OF, "str.indexof")
+          .put(FunctionDeclarationKind.STR_TO_RE, "str.to_re")
+          .put(FunctionDeclarationKind.STR_IN_RE, "str.in_re")
+          .put(FunctionDeclarationKind.STR_TO_INT, "str.to_int")
+          .put(FunctionDeclarationKind.INT_TO_STR, "str.from_int")
+          .put(FunctionDeclarationKind.STR_LT, "str.<")
+          .put(FunctionDeclarationKind.STR_LE, "str.<=")
+          .buildOrThrow();
+
+  private final FormulaManager fmgr;
+  private final Appendable out;
+
+  /** The printed subformulas with the term that represents them, shared by all formulas. */
+  private final Map<Formula, String> printed = new HashMap<>();
+
+  private final Set<String> declaredSymbols = new HashSet<>();
+  private int definitionCount = 0;
+
+  /**
+   * Creates a printer for one SMT-LIB2 script. The output should be buffered, because it is written
+   * in many small pieces.
+   */
+  public SmtLibPrinter(FormulaManager pFmgr, Appendable pOut) {
+    fmgr = checkNotNull(pFmgr);
+    out = checkNotNull(pOut);
+  }
+
+  /**
+   * Write the declarations and definitions needed for the formula that were not yet written for an
+   * earlier formula, and an assertion of the formula.
+   *
+   * @throws UnsupportedOperationException if the formula contains an operator or symbol that can
+   *     not be printed. Nothing is written in this case, and {@link FormulaManager#dumpFormula} can
+   *     be used instead.
+   * @throws IOException if writing fails. The script is incomplete in this case and the printer
+   *     should not be used anymore.
+   */
+  public void print(BooleanFormula f) throws IOException {
+    fmgr.visitRecursively(f, new SupportChecker());
+    try {
+      String name = new PrintingVisitor().print(f);
+      out.append("(assert ").append(name).append(")\n");
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Checks the subformulas that were not yet printed, such that an unsupported formula is detected
+   * before anything is written.
+   */
+  private final class SupportChecker extends DefaultFormulaVisitor<TraversalProcess> {
+
+    @Override
+    protected TraversalProcess visitDefault(Formula f) {
+      return printed.containsKey(f) ? TraversalProcess.SKIP : TraversalProcess.CONTINUE;
+    }
+
+    @Override
+    public TraversalProcess visitFreeVariable(Formula f, String name) {
+      checkSymbol(name);
+      return visitDefault(f);
+    }
+
+    @Override
+    public TraversalProcess visitBoundVariable(Formula f, int deBruijnIdx) {
+      throw new UnsupportedOperationException("cannot print bound variable " + f);
+    }
+
+    @Override
+    public TraversalProcess visitConstant(Formula f, Object value) {
+      @SuppressWarnings("unused")
+      String unused = printConstant(fmgr.getFormulaType(f), value);
+      return visitDefault(f);
+    }
+
+    @Override
+    public TraversalProcess visitFunction(
+        Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+      if (printed.containsKey(f)) {
+        return TraversalProcess.SKIP;
+      }
+      switch (functionDeclaration.getKind()) {
+        case UF:
+          checkSymbol(functionDeclaration.getName());
+          break;
+        case DIV:
+        case EQ_ZERO:
+        case GTE_ZERO:
+          break;
+        case BV_SIGN_EXTENSION:
+        case BV_ZERO_EXTENSION:
+          @SuppressWarnings("unused")
+          int unused = getExtension(f, args);
+          break;
+        default:
+          if (!OPERATORS.containsKey(functionDeclaration.getKind())) {
+            throw new UnsupportedOperationException(
+                "cannot print operator " + functionDeclaration.getKind() + " of formula " + f);
+          }
+      }
+      return TraversalProcess.CONTINUE;
+    }
+
+    @Override
+    public TraversalProcess visitQuantifier(
+        BooleanFormula f,
+        Quantifier quantifier,
+        List<Formula> boundVariables,
+        BooleanFormula body) {
+      throw new UnsupportedOperationException("cannot print quantified formula " + f);
+    }
+  }
+
+  private static void checkSymbol(String name) {
+    if (name.startsWith(DEFINITION_PREFIX)) {
+      throw new UnsupportedOperationException(
+          "cannot print symbol " + name + " with the reserved prefix " + DEFINITION_PREFIX);
+    }
+  }
+
+  private int getExtension(Formula f, List<Formula> args) {
+    return getSize(fmgr.getFormulaType(f)) - getSize(fmgr.getFormulaType(args.get(0)));
+  }
+
+  /**
+   * Prints the formula bottom-up and returns for each subformula the term that represents it,
+   * i.e., a literal, a symbol, or the name of a definition.
+   */
+  private final class PrintingVisitor implements FormulaVisitor<@Nullable String> {
+
+    private final Deque<Formula> waitlist = new ArrayDeque<>();
+
+    String print(Formula pFormula) {
+      // explicit stack instead of recursion, formulas can be deeply nested
+      waitlist.push(pFormula);
+      while (!waitlist.isEmpty()) {
+        Formula f = waitlist.peek();
+        if (printed.containsKey(f)) {
+          waitlist.pop();
+          continue;
+        }
+        String term = fmgr.visit(f, this);
+        if (term != null) {
+          printed.put(f, term);
+          waitlist.pop();
+        }
+      }
+      return checkNotNull(printed.get(pFormula));
+    }
+
+    private void write(String s) {
+      try {
+        out.append(s);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private void declare(String name, List<FormulaType<?>> argumentTypes, FormulaType<?> type) {
+      if (declaredSymbols.add(name)) {
+        StringBuilder declaration = new StringBuilder("(declare-fun ");
+        declaration.append(quote(name)).append(" (");
+        for (int i = 0; i < argumentTypes.size(); i++) {
+          declaration.append(i == 0 ? "" : " ").append(argumentTypes.get(i).toSMTLIBString());
+        }
+        declaration.append(") ").append(type.toSMTLIBString()).append(")\n");
+        write(declaration.toString());
+      }
+    }
+
+    @Override
+    public String visitFreeVariable(Formula f, String name) {
+      declare(name, ImmutableList.of(), fmgr.getFormulaType(f));
+      return quote(name);
+    }
+
+    @Override
+    public String visitBoundVariable(Formula f, int deBruijnIdx) {
+      throw new UnsupportedOperationException("cannot print bound variable " + f);
+    }
+
+    @Override
+    public String visitConstant(Formula f, Object value) {
+      return printConstant(fmgr.getFormulaType(f), value);
+    }
+
+    @Override
+    public @Nullable String visitFunction(
+        Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+      List<String> terms = new ArrayList<>(args.size());
+      boolean allArgumentsPrinted = true;
+      for (Formula arg : args) {
+        String term = printed.get(arg);
+        if (term == null) {
+          waitlist.push(arg);
+          allArgumentsPrinted = false;
+        } else {
+          terms.add(term);
+        }
+      }
+      if (!allArgumentsPrinted) {
+        return null;
+      }
+
+      FormulaType<?> type = fmgr.getFormulaType(f);
+      String application = printApplication(f, args, terms, functionDeclaration);
+      if (terms.isEmpty()) {
+        return application; // constant symbol, no need for a definition
+      }
+      String name = DEFINITION_PREFIX + definitionCount++;
+      write("(define-fun " + name + " () " + type.toSMTLIBString() + " " + application + ")\n");
+      return name;
+    }
+
+    private String printApplication(
+        Formula f, List<Formula> args, List<String> terms, FunctionDeclaration<?> declaration) {
+      String operator;
+      switch (declaration.getKind()) {
+        case UF:
+          declare(declaration.getName(), declaration.getArgumentTypes(), declaration.getType());
+          operator = quote(declaration.getName());
+          break;
+        case DIV:
+          operator = fmgr.getFormulaType(f).isIntegerType() ? "div" : "/";
+          break;
+        case EQ_ZERO:
+          return "(= " + terms.get(0) + " " + printZero(args.get(0)) + ")";
+        case GTE_ZERO:
+          return "(>= " + terms.get(0) + " " + printZero(args.get(0)) + ")";
+        case BV_SIGN_EXTENSION:
+          operator = "(_ sign_extend " + getExtension(f, args) + ")";
+          break;
+        case BV_ZERO_EXTENSION:
+          operator = "(_ zero_extend " + getExtension(f, args) + ")";
+          break;
+        default:
+          operator = OPERATORS.get(declaration.getKind());
+          if (operator == null) {
+            throw new UnsupportedOperationException(
+                "cannot print operator " + declaration.getKind() + " of formula " + f);
+          }
+      }
+      if (terms.isEmpty()) {
+        return operator;
+      }
+      return "(" + operator + " " + String.join(" ", terms) + ")";
+    }
+
+    private String printZero(Formula arg) {
+      return fmgr.getFormulaType(arg).isIntegerType() ? "0" : "0.0";
+    }
+
+    @Override
+    public String visitQuantifier(
+        BooleanFormula f,
+        Quantifier quantifier,
+        List<Formula> boundVariables,
+        BooleanFormula body) {
+      throw new UnsupportedOperationException("cannot print quantified formula " + f);
+    }
+  }
+
+  private static int getSize(FormulaType<?> type) {
+    if (type instanceof BitvectorType) {
+      return ((BitvectorType) type).getSize();
+    }
+    throw new UnsupportedOperationException("expected bitvector type instead of " + type);
+  }
+
+  private static String printConstant(FormulaType<?> type, Object value) {
+    if (value instanceof Boolean) {
+      return value.toString();
+    } else if (type.isBitvectorType() && value instanceof BigInteger) {
+      int size = getSize(type);
+      // negative values are printed in two's complement
+      BigInteger unsigned = ((BigInteger) value).mod(BigInteger.ONE.shiftLeft(size));
+      return "(_ bv" + unsigned + " " + size + ")";
+    } else if (type.isNumeralType() && value instanceof BigInteger) {
+      return printNumeral(type, (BigInteger) value);
+    } else if (type.isNumeralType() && value instanceof Rational) {
+      Rational rational = (Rational) value;
+      if (rational.isIntegral()) {
+        return printNumeral(type, rational.getNum());
+      }
+      String division =
+          "(/ " + printNumeral(type, rational.getNum().abs()) + " " + rational.getDen() + ".0)";
+      return rational.signum() < 0 ? "(- " + division + ")" : division;
+    } else if (type.isStringType() && value instanceof String) {
+      return "\"" + ((String) value).replace("\"", "\"\"") + "\"";
+    }
+    throw new UnsupportedOperationException("cannot print constant " + value + " of type " + type);
+  }
+
+  private static String printNumeral(FormulaType<?> type, BigInteger value) {
+    String literal = value.abs().toString();
+    if (!type.isIntegerType()) {
+      literal += ".0";
+    }
+    return value.signum() < 0 ? "(- " + literal + ")" : literal;
+  }
+
+  /** Quote a symbol with bars, unless it is a simple symbol. */
+  private static String quote(String symbol) {
+    if (SIMPLE_SYMBOL.matcher(symbol).matches() && !RESERVED_WORDS.contains(symbol)) {
+      return symbol;
+    }
+    return "|" + symbol + "|";
+  }
+}